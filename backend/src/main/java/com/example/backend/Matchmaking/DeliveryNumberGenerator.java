@@ -0,0 +1,108 @@
+package com.example.backend.Matchmaking;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snowflake-style delivery numbers: DEL-yyyyMMdd-XXXXXXXXXX.
+ *
+ * The suffix packs the millisecond of the (UTC) day, a 10-bit node id and a
+ * 12-bit per-node sequence, written in Crockford base32. Numbers are unique
+ * as long as every node runs with its own delivery-numbers.node-id; no
+ * database or cross-node coordination is involved.
+ */
+@Component
+public class DeliveryNumberGenerator {
+
+  private static final int NODE_BITS = 10;
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+  private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+  // 27 bits of millisecond-of-day + node + sequence fit in 10 base32 digits
+  private static final int SUFFIX_LENGTH = 10;
+  private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final DateTimeFormatter DAY =
+    DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+  private final long nodeId;
+  // Last issued (millis << SEQUENCE_BITS | sequence)
+  private final AtomicLong state = new AtomicLong();
+  private static final Logger log = LoggerFactory.getLogger(DeliveryNumberGenerator.class);
+
+  public DeliveryNumberGenerator(
+    @Value("${delivery-numbers.node-id:-1}") long configuredNodeId
+  ) {
+    if (configuredNodeId > MAX_NODE) {
+      throw new IllegalArgumentException(
+        "delivery-numbers.node-id must be between 0 and " + MAX_NODE
+      );
+    }
+    if (configuredNodeId >= 0) {
+      this.nodeId = configuredNodeId;
+    } else {
+      this.nodeId = hostNodeId();
+      log.warn(
+        "delivery-numbers.node-id is not set; using {} derived from the host name. " +
+        "Set it explicitly when running more than one backend.",
+        nodeId
+      );
+    }
+  }
+
+  public String next() {
+    long issued = nextState();
+    long millis = issued >>> SEQUENCE_BITS;
+    long sequence = issued & SEQUENCE_MASK;
+    long millisOfDay = Math.floorMod(millis, MILLIS_PER_DAY);
+    long value =
+      (millisOfDay << (NODE_BITS + SEQUENCE_BITS)) |
+      (nodeId << SEQUENCE_BITS) |
+      sequence;
+    return "DEL-" + DAY.format(Instant.ofEpochMilli(millis)) + "-" + encode(value);
+  }
+
+  /**
+   * Lock-free: claims the next (millis, sequence) pair with a CAS. When the
+   * sequence for a millisecond runs out, or the clock steps backwards, it
+   * keeps counting from the last issued millisecond rather than waiting.
+   */
+  private long nextState() {
+    while (true) {
+      long previous = state.get();
+      long now = System.currentTimeMillis();
+      long previousMillis = previous >>> SEQUENCE_BITS;
+      long next = now > previousMillis
+        ? now << SEQUENCE_BITS
+        : previous + 1; // overflowing the sequence rolls into the next millisecond
+      if (state.compareAndSet(previous, next)) {
+        return next;
+      }
+    }
+  }
+
+  private static String encode(long value) {
+    char[] digits = new char[SUFFIX_LENGTH];
+    for (int i = SUFFIX_LENGTH - 1; i >= 0; i--) {
+      digits[i] = ALPHABET[(int) (value & 31)];
+      value >>>= 5;
+    }
+    return new String(digits);
+  }
+
+  private static long hostNodeId() {
+    try {
+      return (InetAddress.getLocalHost().getHostName().hashCode() & 0x7fffffffL) % (MAX_NODE + 1);
+    } catch (Exception e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * A quantity of a food item suggested to a receiver by the matchmaking engine.
+ */
+@Entity
+@Table(
+  name = "match_assignments",
+  indexes = {
+    @Index(name = "idx_match_assignments_item", columnList = "food_item_id"),
+    @Index(name = "idx_match_assignments_receiver", columnList = "receiver_id"),
+  }
+)
+public class MatchAssignment {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "food_item_id", nullable = false)
+  private Long foodItemId;
+
+  @Column(name = "receiver_id", nullable = false)
+  private Long receiverId;
+
+  @Column(name = "quantity", nullable = false)
+  private Integer quantity;
+
+  @Column(name = "distance_km", nullable = false)
+  private Double distanceKm;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Date createdAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getFoodItemId() {
+    return foodItemId;
+  }
+
+  public Long getReceiverId() {
+    return receiverId;
+  }
+
+  public Integer getQuantity() {
+    return quantity;
+  }
+
+  public Double getDistanceKm() {
+    return distanceKm;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.Matchmaking;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchAssignmentRepository
+  extends JpaRepository<MatchAssignment, Long> {
+  List<MatchAssignment> findByReceiverIdOrderByDistanceKmAsc(Long receiverId);
+}
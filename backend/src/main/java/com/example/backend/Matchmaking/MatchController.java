@@ -0,0 +1,27 @@
+package com.example.backend.Matchmaking;
+
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class MatchController {
+
+  private final MatchAssignmentRepository assignmentRepository;
+
+  public MatchController(MatchAssignmentRepository assignmentRepository) {
+    this.assignmentRepository = assignmentRepository;
+  }
+
+  // Items the matchmaking engine suggested to this receiver, nearest first
+  @GetMapping("/matches/receiver/{receiverId}")
+  public ResponseEntity<List<MatchAssignment>> getMatchesForReceiver(
+    @PathVariable Long receiverId
+  ) {
+    return ResponseEntity.ok(
+      assignmentRepository.findByReceiverIdOrderByDistanceKmAsc(receiverId)
+    );
+  }
+}
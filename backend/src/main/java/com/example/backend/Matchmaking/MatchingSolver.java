@@ -0,0 +1,221 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.GeoCellIndex;
+import com.example.backend.foodItems.GeoUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Assigns open food item quantities to receivers so that as much food as
+ * possible is matched at the least total travel distance.
+ *
+ * The area is cut into square regions and each region is solved as a
+ * min-cost flow (items supply units, receivers take up to their capacity,
+ * edge cost is the distance). Regions are independent, so they are solved in
+ * parallel with fork-join. A second pass over regions shifted by half a
+ * region picks up pairs the first pass split across a boundary.
+ */
+public class MatchingSolver {
+
+  private static final double KM_PER_DEGREE = 111.32;
+
+  private final double maxDistanceKm;
+  private final int candidatesPerItem;
+  private final double regionSizeDeg;
+  private final ForkJoinPool pool;
+
+  public MatchingSolver(
+    double maxDistanceKm,
+    int candidatesPerItem,
+    double regionSizeDeg,
+    ForkJoinPool pool
+  ) {
+    this.maxDistanceKm = maxDistanceKm;
+    this.candidatesPerItem = candidatesPerItem;
+    this.regionSizeDeg = regionSizeDeg;
+    this.pool = pool;
+  }
+
+  /**
+   * @param dueToday the item expires today, so only receivers available
+   *     later today can take it
+   */
+  public record Item(long id, double lat, double lon, int quantity, boolean dueToday) {}
+
+  public record Receiver(long id, double lat, double lon, int capacity, boolean availableToday) {}
+
+  public record Assignment(long itemId, long receiverId, int quantity, double distanceKm) {}
+
+  public List<Assignment> solve(List<Item> items, List<Receiver> receivers) {
+    List<Assignment> assignments = new ArrayList<>(solvePass(items, receivers, 0));
+    if (assignments.isEmpty()) {
+      return assignments;
+    }
+
+    Map<Long, Integer> itemUsed = new HashMap<>();
+    Map<Long, Integer> receiverUsed = new HashMap<>();
+    for (Assignment a : assignments) {
+      itemUsed.merge(a.itemId(), a.quantity(), Integer::sum);
+      receiverUsed.merge(a.receiverId(), a.quantity(), Integer::sum);
+    }
+    List<Item> leftoverItems = new ArrayList<>();
+    for (Item item : items) {
+      int left = item.quantity() - itemUsed.getOrDefault(item.id(), 0);
+      if (left > 0) {
+        leftoverItems.add(new Item(item.id(), item.lat(), item.lon(), left, item.dueToday()));
+      }
+    }
+    List<Receiver> leftoverReceivers = new ArrayList<>();
+    for (Receiver receiver : receivers) {
+      int left = receiver.capacity() - receiverUsed.getOrDefault(receiver.id(), 0);
+      if (left > 0) {
+        leftoverReceivers.add(
+          new Receiver(receiver.id(), receiver.lat(), receiver.lon(), left, receiver.availableToday())
+        );
+      }
+    }
+    if (!leftoverItems.isEmpty() && !leftoverReceivers.isEmpty()) {
+      assignments.addAll(solvePass(leftoverItems, leftoverReceivers, regionSizeDeg / 2));
+    }
+    return assignments;
+  }
+
+  private List<Assignment> solvePass(List<Item> items, List<Receiver> receivers, double offset) {
+    Map<Long, Region> regions = new HashMap<>();
+    for (Receiver receiver : receivers) {
+      if (receiver.capacity() > 0) {
+        regions
+          .computeIfAbsent(regionKey(receiver.lat(), receiver.lon(), offset), k -> new Region())
+          .receivers.add(receiver);
+      }
+    }
+    for (Item item : items) {
+      Region region = regions.get(regionKey(item.lat(), item.lon(), offset));
+      if (region != null && item.quantity() > 0) {
+        region.items.add(item);
+      }
+    }
+    List<Region> work = new ArrayList<>();
+    for (Region region : regions.values()) {
+      if (!region.items.isEmpty()) {
+        work.add(region);
+      }
+    }
+    if (work.isEmpty()) {
+      return List.of();
+    }
+    return pool.invoke(new RegionTask(work, 0, work.size()));
+  }
+
+  private long regionKey(double lat, double lon, double offset) {
+    long row = (long) Math.floor((lat + 90 + offset) / regionSizeDeg);
+    long column = (long) Math.floor((lon + 180 + offset) / regionSizeDeg);
+    return (row << 32) ^ column;
+  }
+
+  private List<Assignment> solveRegion(Region region) {
+    List<Item> items = region.items;
+    List<Receiver> receivers = region.receivers;
+    GeoCellIndex<Integer> receiverIndex = new GeoCellIndex<>(maxDistanceKm / KM_PER_DEGREE);
+    for (int r = 0; r < receivers.size(); r++) {
+      Receiver receiver = receivers.get(r);
+      receiverIndex.put(r, receiver.lat(), receiver.lon(), r);
+    }
+
+    // Nodes: source, items, receivers, sink
+    int source = 0;
+    int firstReceiver = 1 + items.size();
+    int sink = firstReceiver + receivers.size();
+    MinCostFlow flow = new MinCostFlow(sink + 1, items.size() * (candidatesPerItem + 1) + receivers.size());
+    List<int[]> pairEdges = new ArrayList<>();
+    List<Double> pairDistances = new ArrayList<>();
+
+    for (int i = 0; i < items.size(); i++) {
+      Item item = items.get(i);
+      List<Integer> nearby = receiverIndex.within(
+        item.lat(),
+        item.lon(),
+        maxDistanceKm,
+        r -> !item.dueToday() || receivers.get(r).availableToday()
+      );
+      if (nearby.isEmpty()) {
+        continue;
+      }
+      List<Candidate> candidates = new ArrayList<>(nearby.size());
+      for (int r : nearby) {
+        Receiver receiver = receivers.get(r);
+        candidates.add(
+          new Candidate(r, GeoUtils.distanceKm(item.lat(), item.lon(), receiver.lat(), receiver.lon()))
+        );
+      }
+      candidates.sort(Comparator.comparingDouble(Candidate::distanceKm));
+      flow.addEdge(source, 1 + i, item.quantity(), 0);
+      for (Candidate candidate : candidates.subList(0, Math.min(candidatesPerItem, candidates.size()))) {
+        int r = candidate.receiver();
+        int cap = Math.min(item.quantity(), receivers.get(r).capacity());
+        // Cost in metres keeps the flow arithmetic integral
+        int edge = flow.addEdge(1 + i, firstReceiver + r, cap, Math.round(candidate.distanceKm() * 1000));
+        pairEdges.add(new int[] { edge, i, r });
+        pairDistances.add(candidate.distanceKm());
+      }
+    }
+    if (pairEdges.isEmpty()) {
+      return List.of();
+    }
+    for (int r = 0; r < receivers.size(); r++) {
+      flow.addEdge(firstReceiver + r, sink, receivers.get(r).capacity(), 0);
+    }
+    flow.run(source, sink);
+
+    List<Assignment> assignments = new ArrayList<>();
+    for (int p = 0; p < pairEdges.size(); p++) {
+      int[] pair = pairEdges.get(p);
+      int units = flow.flow(pair[0]);
+      if (units > 0) {
+        assignments.add(
+          new Assignment(items.get(pair[1]).id(), receivers.get(pair[2]).id(), units, pairDistances.get(p))
+        );
+      }
+    }
+    return assignments;
+  }
+
+  private record Candidate(int receiver, double distanceKm) {}
+
+  private static final class Region {
+
+    private final List<Item> items = new ArrayList<>();
+    private final List<Receiver> receivers = new ArrayList<>();
+  }
+
+  private final class RegionTask extends RecursiveTask<List<Assignment>> {
+
+    private final List<Region> regions;
+    private final int from;
+    private final int to;
+
+    private RegionTask(List<Region> regions, int from, int to) {
+      this.regions = regions;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<Assignment> compute() {
+      if (to - from == 1) {
+        return solveRegion(regions.get(from));
+      }
+      int middle = (from + to) >>> 1;
+      RegionTask left = new RegionTask(regions, from, middle);
+      left.fork();
+      List<Assignment> result = new ArrayList<>(new RegionTask(regions, middle, to).compute());
+      result.addAll(left.join());
+      return result;
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.FoodItemsAddedEvent;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background donor-receiver matching.
+ *
+ * New items mark the engine dirty and the next tick matches every open item
+ * quantity that is not assigned yet against the capacity receivers have
+ * left, so each run only places what changed since the previous one. An
+ * item whose whole quantity is assigned gets its matched flag set.
+ *
+ * A run is one transaction holding an advisory lock, so only one node
+ * matches at a time and no two runs assign the same open quantity; a node
+ * that finds the lock taken stays dirty and tries again on its next tick.
+ */
+@Service
+public class MatchmakingEngine {
+
+  private static final String LOCK_NAME = "matchmaking";
+
+  private static final String CLEANUP_SQL =
+    "DELETE FROM match_assignments a WHERE NOT EXISTS (" +
+    "SELECT 1 FROM food_items f WHERE f.id = a.food_item_id AND f.expiry_date >= CURRENT_DATE)";
+
+  private static final String OPEN_ITEMS_SQL =
+    "SELECT f.id, f.pickup_latitude, f.pickup_longitude, f.expiry_date, " +
+    "f.quantity - COALESCE(a.assigned, 0) AS open_quantity " +
+    "FROM food_items f LEFT JOIN (" +
+    "  SELECT food_item_id, SUM(quantity) AS assigned FROM match_assignments GROUP BY food_item_id" +
+    ") a ON a.food_item_id = f.id " +
+    "WHERE f.matched = false AND f.quantity > COALESCE(a.assigned, 0) " +
+    "AND f.expiry_date >= CURRENT_DATE " +
+    "AND f.pickup_latitude IS NOT NULL AND f.pickup_longitude IS NOT NULL";
+
+  private static final String RECEIVERS_SQL =
+    "SELECT u.id, u.home_lat, u.home_lon, u.availability_time_to, " +
+    "? - COALESCE(a.assigned, 0) AS capacity " +
+    "FROM users u LEFT JOIN (" +
+    "  SELECT receiver_id, SUM(quantity) AS assigned FROM match_assignments GROUP BY receiver_id" +
+    ") a ON a.receiver_id = u.id " +
+    "WHERE u.role = 'RECEIVER' AND u.home_lat IS NOT NULL AND u.home_lon IS NOT NULL " +
+    "AND COALESCE(a.assigned, 0) < ?";
+
+  private static final String INSERT_SQL =
+    "INSERT INTO match_assignments (food_item_id, receiver_id, quantity, distance_km, created_at) " +
+    "VALUES (?, ?, ?, ?, now())";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final MatchingSolver solver;
+  private final ForkJoinPool pool;
+  private final boolean enabled;
+  private final int receiverCapacity;
+  // Start dirty so items left unmatched before a restart are picked up
+  private final AtomicBoolean dirty = new AtomicBoolean(true);
+  private static final Logger log = LoggerFactory.getLogger(MatchmakingEngine.class);
+
+  public MatchmakingEngine(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager,
+    @Value("${matchmaking.enabled:true}") boolean enabled,
+    @Value("${matchmaking.max-distance-km:5}") double maxDistanceKm,
+    @Value("${matchmaking.receiver-capacity:20}") int receiverCapacity,
+    @Value("${matchmaking.candidates-per-item:12}") int candidatesPerItem,
+    @Value("${matchmaking.region-size-deg:0.05}") double regionSizeDeg
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.receiverCapacity = receiverCapacity;
+    this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    this.solver = new MatchingSolver(maxDistanceKm, candidatesPerItem, regionSizeDeg, pool);
+  }
+
+  @EventListener
+  public void onItemsAdded(FoodItemsAddedEvent event) {
+    dirty.set(true);
+  }
+
+  // Receivers change their location and free up capacity without an event
+  @Scheduled(cron = "0 0 * * * ?")
+  public void markDirty() {
+    dirty.set(true);
+  }
+
+  @Scheduled(fixedDelayString = "${matchmaking.interval-ms:15000}")
+  public void matchPending() {
+    if (!enabled || !dirty.getAndSet(false)) {
+      return;
+    }
+    try {
+      if (run() < 0) {
+        dirty.set(true);
+      }
+    } catch (RuntimeException e) {
+      dirty.set(true);
+      log.warn("Matchmaking run failed", e);
+    }
+  }
+
+  // Number of assignments made, or -1 when another node is running
+  public int run() {
+    Integer assigned = transactionTemplate.execute(status -> {
+      Boolean locked = jdbcTemplate.queryForObject(
+        "SELECT pg_try_advisory_xact_lock(hashtext(?))",
+        Boolean.class,
+        LOCK_NAME
+      );
+      if (!Boolean.TRUE.equals(locked)) {
+        return -1;
+      }
+      return match();
+    });
+    return assigned != null ? assigned : 0;
+  }
+
+  private int match() {
+    long started = System.currentTimeMillis();
+    jdbcTemplate.update(CLEANUP_SQL);
+
+    LocalDate today = LocalDate.now();
+    List<MatchingSolver.Item> items = jdbcTemplate.query(
+      OPEN_ITEMS_SQL,
+      (rs, rowNum) -> {
+        Date expiry = rs.getDate("expiry_date");
+        return new MatchingSolver.Item(
+          rs.getLong("id"),
+          rs.getDouble("pickup_latitude"),
+          rs.getDouble("pickup_longitude"),
+          rs.getInt("open_quantity"),
+          expiry.toLocalDate().equals(today)
+        );
+      }
+    );
+    if (items.isEmpty()) {
+      return 0;
+    }
+    LocalTime now = LocalTime.now();
+    List<MatchingSolver.Receiver> receivers = jdbcTemplate.query(
+      RECEIVERS_SQL,
+      (rs, rowNum) -> {
+        Time availableTo = rs.getTime("availability_time_to");
+        return new MatchingSolver.Receiver(
+          rs.getLong("id"),
+          rs.getDouble("home_lat"),
+          rs.getDouble("home_lon"),
+          rs.getInt("capacity"),
+          availableTo == null || availableTo.toLocalTime().isAfter(now)
+        );
+      },
+      receiverCapacity,
+      receiverCapacity
+    );
+
+    List<MatchingSolver.Assignment> assignments = solver.solve(items, receivers);
+    if (!assignments.isEmpty()) {
+      save(items, assignments);
+    }
+    log.info(
+      "Matched {} of {} open items to receivers ({} assignments) in {} ms",
+      assignments.stream().map(MatchingSolver.Assignment::itemId).distinct().count(),
+      items.size(),
+      assignments.size(),
+      System.currentTimeMillis() - started
+    );
+    return assignments.size();
+  }
+
+  private void save(List<MatchingSolver.Item> items, List<MatchingSolver.Assignment> assignments) {
+    Map<Long, Integer> assigned = new HashMap<>();
+    for (MatchingSolver.Assignment a : assignments) {
+      assigned.merge(a.itemId(), a.quantity(), Integer::sum);
+    }
+    List<Long> fullyMatched = new ArrayList<>();
+    for (MatchingSolver.Item item : items) {
+      if (assigned.getOrDefault(item.id(), 0) >= item.quantity()) {
+        fullyMatched.add(item.id());
+      }
+    }
+
+    jdbcTemplate.batchUpdate(
+      INSERT_SQL,
+      assignments,
+      500,
+      (ps, a) -> {
+        ps.setLong(1, a.itemId());
+        ps.setLong(2, a.receiverId());
+        ps.setInt(3, a.quantity());
+        ps.setDouble(4, a.distanceKm());
+      }
+    );
+    if (!fullyMatched.isEmpty()) {
+      jdbcTemplate.update(
+        "UPDATE food_items SET matched = true WHERE id = ANY(?::bigint[])",
+        (Object) fullyMatched.toArray(new Long[0])
+      );
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
@@ -0,0 +1,226 @@
+package com.example.backend.Matchmaking;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost max-flow by successive shortest paths, with Johnson potentials so
+ * every search is a Dijkstra over non-negative reduced costs. After each
+ * search all shortest augmenting paths are saturated before searching again
+ * (primal-dual with blocking flow). Edges are kept
+ * in flat arrays; the graphs built per matching region are small and sparse.
+ */
+final class MinCostFlow {
+
+  private static final long INF = Long.MAX_VALUE / 4;
+
+  private final int nodeCount;
+  private final int[] head;
+  private int[] next;
+  private int[] to;
+  private int[] capacity;
+  private int[] initialCapacity;
+  private long[] cost;
+  private int edgeCount;
+  private int[] currentEdge;
+  private boolean[] onPath;
+
+  MinCostFlow(int nodeCount, int expectedEdges) {
+    this.nodeCount = nodeCount;
+    this.head = new int[nodeCount];
+    Arrays.fill(head, -1);
+    int size = Math.max(2, expectedEdges * 2);
+    next = new int[size];
+    to = new int[size];
+    capacity = new int[size];
+    initialCapacity = new int[size];
+    cost = new long[size];
+  }
+
+  // Returns the edge id; its reverse edge is id ^ 1
+  int addEdge(int from, int target, int edgeCapacity, long edgeCost) {
+    if (edgeCount + 2 > to.length) {
+      grow();
+    }
+    int id = edgeCount;
+    link(from, target, edgeCapacity, edgeCost);
+    link(target, from, 0, -edgeCost);
+    return id;
+  }
+
+  int flow(int edge) {
+    return initialCapacity[edge] - capacity[edge];
+  }
+
+  /** Pushes as much flow as possible from source to sink at minimum total cost. */
+  long run(int source, int sink) {
+    long[] potential = new long[nodeCount];
+    long[] dist = new long[nodeCount];
+    currentEdge = new int[nodeCount];
+    onPath = new boolean[nodeCount];
+    long totalFlow = 0;
+    Heap heap = new Heap(nodeCount);
+
+    while (true) {
+      Arrays.fill(dist, INF);
+      dist[source] = 0;
+      heap.push(0, source);
+      while (!heap.isEmpty()) {
+        long d = heap.peekKey();
+        int node = heap.pop();
+        if (d > dist[node]) {
+          continue;
+        }
+        if (node == sink) {
+          // Nothing settled after the sink can lie on a shortest path
+          heap.clear();
+          break;
+        }
+        for (int e = head[node]; e != -1; e = next[e]) {
+          if (capacity[e] == 0) {
+            continue;
+          }
+          int v = to[e];
+          long candidate = d + cost[e] + potential[node] - potential[v];
+          if (candidate < dist[v]) {
+            dist[v] = candidate;
+            heap.push(candidate, v);
+          }
+        }
+      }
+      if (dist[sink] == INF) {
+        return totalFlow;
+      }
+      // Capping at the sink distance keeps every reduced cost non-negative
+      long sinkDist = dist[sink];
+      for (int v = 0; v < nodeCount; v++) {
+        potential[v] += Math.min(dist[v], sinkDist);
+      }
+
+      // Push along every shortest path found by this search, not just one
+      System.arraycopy(head, 0, currentEdge, 0, nodeCount);
+      while (true) {
+        int pushed = augment(source, sink, Integer.MAX_VALUE, potential);
+        if (pushed == 0) {
+          break;
+        }
+        totalFlow += pushed;
+      }
+    }
+  }
+
+  // Depth-first augmentation over edges whose reduced cost is zero
+  private int augment(int node, int sink, int limit, long[] potential) {
+    if (node == sink) {
+      return limit;
+    }
+    onPath[node] = true;
+    for (; currentEdge[node] != -1; currentEdge[node] = next[currentEdge[node]]) {
+      int e = currentEdge[node];
+      int v = to[e];
+      if (
+        capacity[e] == 0 ||
+        onPath[v] ||
+        cost[e] + potential[node] - potential[v] != 0
+      ) {
+        continue;
+      }
+      int pushed = augment(v, sink, Math.min(limit, capacity[e]), potential);
+      if (pushed > 0) {
+        capacity[e] -= pushed;
+        capacity[e ^ 1] += pushed;
+        onPath[node] = false;
+        return pushed;
+      }
+    }
+    onPath[node] = false;
+    return 0;
+  }
+
+  private void link(int from, int target, int edgeCapacity, long edgeCost) {
+    to[edgeCount] = target;
+    capacity[edgeCount] = edgeCapacity;
+    initialCapacity[edgeCount] = edgeCapacity;
+    cost[edgeCount] = edgeCost;
+    next[edgeCount] = head[from];
+    head[from] = edgeCount++;
+  }
+
+  private void grow() {
+    int size = to.length * 2;
+    next = Arrays.copyOf(next, size);
+    to = Arrays.copyOf(to, size);
+    capacity = Arrays.copyOf(capacity, size);
+    initialCapacity = Arrays.copyOf(initialCapacity, size);
+    cost = Arrays.copyOf(cost, size);
+  }
+
+  // Binary min-heap of (key, node) with lazy deletion
+  private static final class Heap {
+
+    private long[] keys;
+    private int[] nodes;
+    private int size;
+
+    private Heap(int capacity) {
+      keys = new long[Math.max(16, capacity)];
+      nodes = new int[keys.length];
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    long peekKey() {
+      return keys[0];
+    }
+
+    void push(long key, int node) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        nodes = Arrays.copyOf(nodes, size * 2);
+      }
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) {
+          break;
+        }
+        keys[i] = keys[parent];
+        nodes[i] = nodes[parent];
+        i = parent;
+      }
+      keys[i] = key;
+      nodes[i] = node;
+    }
+
+    int pop() {
+      int top = nodes[0];
+      size--;
+      long key = keys[size];
+      int node = nodes[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          child++;
+        }
+        if (keys[child] >= key) {
+          break;
+        }
+        keys[i] = keys[child];
+        nodes[i] = nodes[child];
+        i = child;
+      }
+      keys[i] = key;
+      nodes[i] = node;
+      return top;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.Matchmaking;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dashboard listings of pickups grouped by delivery number. One query per
+ * page: a keyset-paginated CTE picks the deliveries and the outer select
+ * joins their lines to food_items and to the counterpart user. A delivery's
+ * lines are inserted together and share one created_at, so the keyset is
+ * applied to the rows in WHERE and only the page is de-duplicated.
+ */
+@Component
+public class PickupDashboardQueries {
+
+  private static final String PAGE_SQL =
+    "WITH page AS (" +
+    "  SELECT DISTINCT created_at, delivery_number FROM pickup_requests " +
+    "  WHERE %1$s = ? AND (CAST(? AS varchar) IS NULL OR status = ?) %3$s" +
+    "  ORDER BY created_at DESC, delivery_number DESC LIMIT ?) " +
+    "SELECT page.created_at AS delivery_created_at, p.delivery_number, p.status, p.pickup_date, " +
+    "p.pickup_time, p.food_item_id, p.quantity, f.name AS item_name, " +
+    "u.id AS counterpart_id, u.username AS counterpart_name, u.email AS counterpart_email " +
+    "FROM page JOIN pickup_requests p ON p.delivery_number = page.delivery_number AND p.%1$s = ? " +
+    "LEFT JOIN food_items f ON f.id = p.food_item_id " +
+    "LEFT JOIN users u ON u.id = p.%2$s " +
+    "ORDER BY page.created_at DESC, page.delivery_number DESC, p.id";
+
+  // Separate statements for the first page, so neither carries an OR that hides the keyset from the planner
+  private static final String AFTER = "AND (created_at, delivery_number) < (?, ?) ";
+
+  private static final String DONOR_SQL = String.format(PAGE_SQL, "donor_id", "receiver_id", "");
+  private static final String DONOR_AFTER_SQL = String.format(PAGE_SQL, "donor_id", "receiver_id", AFTER);
+  private static final String RECEIVER_SQL = String.format(PAGE_SQL, "receiver_id", "donor_id", "");
+  private static final String RECEIVER_AFTER_SQL = String.format(PAGE_SQL, "receiver_id", "donor_id", AFTER);
+
+  // "<created_at epoch micros>_<delivery number>" of the last delivery on the previous page
+  private static final Pattern CURSOR = Pattern.compile("(\\d{1,18})_(.+)");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PickupDashboardQueries(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public DeliveryPage donorDeliveries(Long donorId, String status, String cursor, int size) {
+    return page(cursor == null ? DONOR_SQL : DONOR_AFTER_SQL, donorId, status, cursor, size);
+  }
+
+  public DeliveryPage receiverDeliveries(Long receiverId, String status, String cursor, int size) {
+    return page(cursor == null ? RECEIVER_SQL : RECEIVER_AFTER_SQL, receiverId, status, cursor, size);
+  }
+
+  public static boolean isValidCursor(String cursor) {
+    return cursor == null || CURSOR.matcher(cursor).matches();
+  }
+
+  private DeliveryPage page(String sql, Long userId, String status, String cursor, int size) {
+    List<Object> args = new ArrayList<>();
+    args.add(userId);
+    args.add(status);
+    args.add(status);
+    if (cursor != null) {
+      Matcher matcher = CURSOR.matcher(cursor);
+      if (!matcher.matches()) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      args.add(Timestamp.from(Instant.EPOCH.plus(Long.parseLong(matcher.group(1)), ChronoUnit.MICROS)));
+      args.add(matcher.group(2));
+    }
+    args.add(size);
+    args.add(userId);
+
+    Map<String, DeliverySummary> deliveries = new LinkedHashMap<>();
+    jdbcTemplate.query(
+      sql,
+      rs -> {
+        String deliveryNumber = rs.getString("delivery_number");
+        DeliverySummary summary = deliveries.get(deliveryNumber);
+        if (summary == null) {
+          summary = new DeliverySummary(
+            deliveryNumber,
+            rs.getString("status"),
+            rs.getDate("pickup_date").toLocalDate(),
+            rs.getTime("pickup_time").toLocalTime(),
+            rs.getTimestamp("delivery_created_at"),
+            new Counterpart(
+              rs.getLong("counterpart_id"),
+              rs.getString("counterpart_name"),
+              rs.getString("counterpart_email")
+            )
+          );
+          deliveries.put(deliveryNumber, summary);
+        }
+        summary.getItems().add(
+          new DeliveryLine(rs.getLong("food_item_id"), rs.getString("item_name"), rs.getInt("quantity"))
+        );
+      },
+      args.toArray()
+    );
+
+    List<DeliverySummary> page = new ArrayList<>(deliveries.values());
+    String nextCursor = null;
+    if (page.size() == size) {
+      DeliverySummary last = page.get(page.size() - 1);
+      Instant createdAt = last.getCreatedAt().toInstant();
+      nextCursor = ChronoUnit.MICROS.between(Instant.EPOCH, createdAt) + "_" + last.getDeliveryNumber();
+    }
+    return new DeliveryPage(page, nextCursor);
+  }
+}
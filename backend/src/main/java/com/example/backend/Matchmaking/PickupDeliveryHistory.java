@@ -0,0 +1,85 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * One line of a completed delivery. Maintained by PickupHistoryProjector from
+ * the pickup event log and rebuilt by replaying it.
+ */
+@Entity
+@Table(
+  name = "pickup_delivery_history",
+  indexes = {
+    @Index(name = "idx_pickup_history_donor_completed", columnList = "donor_id, completed_at"),
+    @Index(name = "idx_pickup_history_receiver_completed", columnList = "receiver_id, completed_at"),
+  }
+)
+public class PickupDeliveryHistory {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "delivery_number", nullable = false)
+  private String deliveryNumber;
+
+  @Column(name = "receiver_id", nullable = false)
+  private Long receiverId;
+
+  @Column(name = "donor_id", nullable = false)
+  private Long donorId;
+
+  @Column(name = "food_item_id", nullable = false)
+  private Long foodItemId;
+
+  @Column(name = "quantity", nullable = false)
+  private Integer quantity;
+
+  @Column(name = "pickup_date", nullable = false)
+  private LocalDate pickupDate;
+
+  @Column(name = "pickup_time", nullable = false)
+  private LocalTime pickupTime;
+
+  @Column(name = "completed_at", nullable = false)
+  private Date completedAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getDeliveryNumber() {
+    return deliveryNumber;
+  }
+
+  public Long getReceiverId() {
+    return receiverId;
+  }
+
+  public Long getDonorId() {
+    return donorId;
+  }
+
+  public Long getFoodItemId() {
+    return foodItemId;
+  }
+
+  public Integer getQuantity() {
+    return quantity;
+  }
+
+  public LocalDate getPickupDate() {
+    return pickupDate;
+  }
+
+  public LocalTime getPickupTime() {
+    return pickupTime;
+  }
+
+  public Date getCompletedAt() {
+    return completedAt;
+  }
+}
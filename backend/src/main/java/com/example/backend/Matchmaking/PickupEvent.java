@@ -0,0 +1,105 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * Append-only record of what happened to a delivery. CREATED events carry one
+ * order line each; CONFIRMED, CANCELLED and COMPLETED events apply to the
+ * whole delivery. Rows are only ever inserted, by PickupRequestWriter.
+ */
+@Entity
+@Table(
+  name = "pickup_events",
+  indexes = {
+    @Index(name = "idx_pickup_events_delivery_number", columnList = "delivery_number, id"),
+    @Index(name = "idx_pickup_events_pickup_request", columnList = "pickup_request_id"),
+  }
+)
+public class PickupEvent {
+
+  public static final String CREATED = "CREATED";
+  public static final String CONFIRMED = "CONFIRMED";
+  public static final String CANCELLED = "CANCELLED";
+  public static final String COMPLETED = "COMPLETED";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "event_type", nullable = false, length = 20)
+  private String eventType;
+
+  @Column(name = "delivery_number", nullable = false)
+  private String deliveryNumber;
+
+  @Column(name = "pickup_request_id")
+  private Long pickupRequestId;
+
+  @Column(name = "receiver_id")
+  private Long receiverId;
+
+  @Column(name = "donor_id")
+  private Long donorId;
+
+  @Column(name = "food_item_id")
+  private Long foodItemId;
+
+  @Column(name = "quantity")
+  private Integer quantity;
+
+  @Column(name = "pickup_date")
+  private LocalDate pickupDate;
+
+  @Column(name = "pickup_time")
+  private LocalTime pickupTime;
+
+  @Column(name = "occurred_at", nullable = false)
+  private Date occurredAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getEventType() {
+    return eventType;
+  }
+
+  public String getDeliveryNumber() {
+    return deliveryNumber;
+  }
+
+  public Long getPickupRequestId() {
+    return pickupRequestId;
+  }
+
+  public Long getReceiverId() {
+    return receiverId;
+  }
+
+  public Long getDonorId() {
+    return donorId;
+  }
+
+  public Long getFoodItemId() {
+    return foodItemId;
+  }
+
+  public Integer getQuantity() {
+    return quantity;
+  }
+
+  public LocalDate getPickupDate() {
+    return pickupDate;
+  }
+
+  public LocalTime getPickupTime() {
+    return pickupTime;
+  }
+
+  public Date getOccurredAt() {
+    return occurredAt;
+  }
+}
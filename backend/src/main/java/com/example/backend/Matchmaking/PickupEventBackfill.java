@@ -0,0 +1,77 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Seeds pickup_events from pickup_requests rows written before the event log
+ * existed, so a rebuild of the read models does not lose them. Rows that
+ * already have a CREATED event are left alone, which makes reruns no-ops.
+ */
+@Component
+public class PickupEventBackfill implements StartupTask {
+
+  private static final String BACKFILL_CREATED_SQL =
+    "INSERT INTO pickup_events (event_type, delivery_number, pickup_request_id, receiver_id, " +
+    "donor_id, food_item_id, quantity, pickup_date, pickup_time, occurred_at) " +
+    "SELECT 'CREATED', pr.delivery_number, pr.id, pr.receiver_id, pr.donor_id, pr.food_item_id, " +
+    "pr.quantity, pr.pickup_date, pr.pickup_time, COALESCE(pr.created_at, now()) " +
+    "FROM pickup_requests pr " +
+    "WHERE NOT EXISTS (SELECT 1 FROM pickup_events e WHERE e.pickup_request_id = pr.id) " +
+    "ORDER BY pr.id";
+
+  private static final String BACKFILL_CONFIRMED_SQL =
+    "INSERT INTO pickup_events (event_type, delivery_number, occurred_at) " +
+    "SELECT DISTINCT 'CONFIRMED', pr.delivery_number, now() FROM pickup_requests pr " +
+    "WHERE pr.status = 'CONFIRMED' AND NOT EXISTS (" +
+    "SELECT 1 FROM pickup_events e WHERE e.delivery_number = pr.delivery_number " +
+    "AND e.event_type <> 'CREATED')";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private static final Logger log = LoggerFactory.getLogger(PickupEventBackfill.class);
+
+  public PickupEventBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Override
+  public String getName() {
+    return "pickup-event-backfill";
+  }
+
+  // A rebuild before the backfill would drop the legacy rows from the read model
+  @Override
+  public boolean isRequiredForReadiness() {
+    return true;
+  }
+
+  @Override
+  public void run(StartupTaskContext context) {
+    context.setTotal(2);
+    int[] counts = transactionTemplate.execute(status -> {
+      jdbcTemplate.query(PickupEventProjector.ASSIGN_XID_SQL, rs -> {});
+      int createdRows = jdbcTemplate.update(BACKFILL_CREATED_SQL);
+      context.advance(1);
+      int confirmedRows = jdbcTemplate.update(BACKFILL_CONFIRMED_SQL);
+      context.advance(1);
+      return new int[] { createdRows, confirmedRows };
+    });
+    int created = counts[0];
+    int confirmed = counts[1];
+    if (created > 0 || confirmed > 0) {
+      log.info(
+        "Backfilled {} CREATED and {} CONFIRMED pickup events from pickup_requests",
+        created,
+        confirmed
+      );
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package com.example.backend.Matchmaking;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base for the asynchronous read models built from pickup_events.
+ *
+ * Each tick reads events past the projector's stored offset, applies them and
+ * moves the offset in the same transaction, so a crash never applies an event
+ * twice. An advisory lock keeps one node projecting at a time.
+ *
+ * Event ids are handed out at insert time but become visible at commit, so a
+ * lower id can show up after a higher one. The projector stops at a gap and
+ * notes the snapshot's xmax: whichever transaction holds the missing id had
+ * its xid by then (writers take one before inserting events, see
+ * ASSIGN_XID_SQL). Once the oldest running transaction is past that xmax,
+ * the holder has finished, and an id that is still missing was rolled back
+ * and is skipped. Wall-clock time plays no part, so a slow commit is never
+ * mistaken for a rollback.
+ */
+public abstract class PickupEventProjector {
+
+  private static final int BATCH_SIZE = 500;
+  private static final int MAX_BATCHES_PER_TICK = 20;
+
+  // Writers run this in their transaction before inserting events, so the
+  // transaction has an xid before it takes an event id
+  static final String ASSIGN_XID_SQL = "SELECT pg_current_xact_id()";
+
+  private static final String SNAPSHOT_XMIN_SQL =
+    "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+  private static final String SNAPSHOT_XMAX_SQL =
+    "SELECT pg_snapshot_xmax(pg_current_snapshot())::text::bigint";
+
+  private static final String EVENTS_SQL =
+    "SELECT id, event_type, delivery_number, pickup_request_id, receiver_id, donor_id, " +
+    "food_item_id, quantity, pickup_date, pickup_time, occurred_at " +
+    "FROM pickup_events WHERE id > ? ORDER BY id LIMIT ?";
+
+  protected final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  // Written under the advisory lock, but read by the scheduler thread and rebuild callers alike
+  private volatile long gapAfterId = -1;
+  // Every transaction below this xid must have finished before the gap can be skipped
+  private volatile long gapHorizon;
+  private static final Logger log = LoggerFactory.getLogger(PickupEventProjector.class);
+
+  protected PickupEventProjector(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  public record Event(
+    long id,
+    String type,
+    String deliveryNumber,
+    Long pickupRequestId,
+    Long receiverId,
+    Long donorId,
+    Long foodItemId,
+    Integer quantity,
+    LocalDate pickupDate,
+    LocalTime pickupTime,
+    Timestamp occurredAt
+  ) {}
+
+  public abstract String getName();
+
+  // Applies events in id order; consecutive events of one kind should go out as one batch
+  protected abstract void apply(List<Event> events);
+
+  // Empties the read model before a replay
+  protected abstract void reset();
+
+  @Scheduled(fixedDelay = 200)
+  public void project() {
+    try {
+      for (int i = 0; i < MAX_BATCHES_PER_TICK; i++) {
+        if (projectBatch() < BATCH_SIZE) {
+          return;
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Pickup projector {} failed; retrying on the next tick", getName(), e);
+    }
+  }
+
+  /** Clears the read model and replays the whole event log into it. */
+  public void rebuild() {
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> {}, lockName());
+      reset();
+      jdbcTemplate.update(
+        "UPDATE pickup_projection_offsets SET last_event_id = 0 WHERE name = ?",
+        getName()
+      );
+      // Under the lock, so no batch is halfway through the old log when the gap is forgotten
+      gapAfterId = -1;
+    });
+    log.info("Pickup projector {} reset; replaying the event log", getName());
+  }
+
+  public long getOffset() {
+    List<Long> offset = jdbcTemplate.queryForList(
+      "SELECT last_event_id FROM pickup_projection_offsets WHERE name = ?",
+      Long.class,
+      getName()
+    );
+    return offset.isEmpty() ? 0 : offset.get(0);
+  }
+
+  private int projectBatch() {
+    Integer applied = transactionTemplate.execute(status -> {
+      Boolean locked = jdbcTemplate.queryForObject(
+        "SELECT pg_try_advisory_xact_lock(hashtext(?))",
+        Boolean.class,
+        lockName()
+      );
+      if (!Boolean.TRUE.equals(locked)) {
+        return 0;
+      }
+      jdbcTemplate.update(
+        "INSERT INTO pickup_projection_offsets (name, last_event_id) VALUES (?, 0) ON CONFLICT (name) DO NOTHING",
+        getName()
+      );
+      long offset = jdbcTemplate.queryForObject(
+        "SELECT last_event_id FROM pickup_projection_offsets WHERE name = ? FOR UPDATE",
+        Long.class,
+        getName()
+      );
+      // Taken before the read: a transaction finished by now has its events in it
+      long oldestRunning = snapshotXid(SNAPSHOT_XMIN_SQL);
+      List<Event> events = contiguous(
+        offset,
+        jdbcTemplate.query(EVENTS_SQL, (rs, rowNum) -> map(rs), offset, BATCH_SIZE),
+        oldestRunning
+      );
+      if (events.isEmpty()) {
+        return 0;
+      }
+      apply(events);
+      jdbcTemplate.update(
+        "UPDATE pickup_projection_offsets SET last_event_id = ? WHERE name = ?",
+        events.get(events.size() - 1).id(),
+        getName()
+      );
+      return events.size();
+    });
+    return applied != null ? applied : 0;
+  }
+
+  // Keeps the events up to the first id gap that may still be filled by an open transaction
+  List<Event> contiguous(long offset, List<Event> events, long oldestRunning) {
+    List<Event> result = new ArrayList<>();
+    long expected = offset + 1;
+    for (Event event : events) {
+      if (event.id() != expected) {
+        if (gapAfterId != expected - 1) {
+          // New gap: its holder, if still running, has an xid below the current xmax
+          gapAfterId = expected - 1;
+          gapHorizon = snapshotXid(SNAPSHOT_XMAX_SQL);
+          break;
+        }
+        if (oldestRunning < gapHorizon) {
+          break;
+        }
+      }
+      result.add(event);
+      expected = event.id() + 1;
+    }
+    return result;
+  }
+
+  private long snapshotXid(String sql) {
+    return jdbcTemplate.queryForObject(sql, Long.class);
+  }
+
+  private String lockName() {
+    return "pickup-projector:" + getName();
+  }
+
+  private static Event map(ResultSet rs) throws SQLException {
+    java.sql.Date pickupDate = rs.getDate("pickup_date");
+    Time pickupTime = rs.getTime("pickup_time");
+    return new Event(
+      rs.getLong("id"),
+      rs.getString("event_type"),
+      rs.getString("delivery_number"),
+      rs.getObject("pickup_request_id", Long.class),
+      rs.getObject("receiver_id", Long.class),
+      rs.getObject("donor_id", Long.class),
+      rs.getObject("food_item_id", Long.class),
+      rs.getObject("quantity", Integer.class),
+      pickupDate != null ? pickupDate.toLocalDate() : null,
+      pickupTime != null ? pickupTime.toLocalTime() : null,
+      rs.getTimestamp("occurred_at")
+    );
+  }
+
+  // Splits events into runs of the same type, preserving order
+  protected static List<List<Event>> runsByType(List<Event> events) {
+    List<List<Event>> runs = new ArrayList<>();
+    List<Event> current = null;
+    for (Event event : events) {
+      if (current == null || !current.get(0).type().equals(event.type())) {
+        current = new ArrayList<>();
+        runs.add(current);
+      }
+      current.add(event);
+    }
+    return runs;
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.Matchmaking;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Copies the lines of every completed delivery into pickup_delivery_history,
+ * for donor and receiver history, analytics and audit.
+ */
+@Component
+public class PickupHistoryProjector extends PickupEventProjector {
+
+  public PickupHistoryProjector(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager
+  ) {
+    super(jdbcTemplate, transactionManager);
+  }
+
+  @Override
+  public String getName() {
+    return "pickup-history";
+  }
+
+  @Override
+  protected void apply(List<Event> events) {
+    List<Event> completed = events
+      .stream()
+      .filter(e -> PickupEvent.COMPLETED.equals(e.type()))
+      .toList();
+    if (completed.isEmpty()) {
+      return;
+    }
+    // The lines come from the delivery's CREATED events, which always precede it in the log
+    jdbcTemplate.batchUpdate(
+      "INSERT INTO pickup_delivery_history (delivery_number, receiver_id, donor_id, food_item_id, " +
+      "quantity, pickup_date, pickup_time, completed_at) " +
+      "SELECT delivery_number, receiver_id, donor_id, food_item_id, quantity, pickup_date, " +
+      "pickup_time, ? FROM pickup_events WHERE event_type = 'CREATED' AND delivery_number = ? " +
+      "ORDER BY id",
+      completed,
+      completed.size(),
+      (ps, e) -> {
+        ps.setTimestamp(1, e.occurredAt());
+        ps.setString(2, e.deliveryNumber());
+      }
+    );
+  }
+
+  @Override
+  protected void reset() {
+    jdbcTemplate.update("DELETE FROM pickup_delivery_history");
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+import java.util.Date;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Idempotency key seen on a pickup creation request. Keys are scoped to the
+ * receiver; the unique constraint on (receiver_id, idempotency_key) is what
+ * makes a retry safe across restarts and nodes. request_hash identifies the
+ * body the key was first used with. Rows are inserted with JDBC by
+ * PickupRequestWriter, in the transaction that writes the order.
+ */
+@Entity
+@Table(
+  name = "pickup_idempotency_keys",
+  uniqueConstraints = @UniqueConstraint(
+    name = "uk_pickup_idempotency_receiver_key",
+    columnNames = { "receiver_id", "idempotency_key" }
+  )
+)
+public class PickupIdempotencyKey {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "receiver_id", nullable = false)
+  private Long receiverId;
+
+  @Column(name = "idempotency_key", nullable = false, length = 100)
+  private String idempotencyKey;
+
+  // SHA-256 of the request body, hex encoded
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "delivery_number", nullable = false)
+  private String deliveryNumber;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Date createdAt;
+
+  public PickupIdempotencyKey() {}
+
+  public PickupIdempotencyKey(
+    Long receiverId,
+    String idempotencyKey,
+    String requestHash,
+    String deliveryNumber
+  ) {
+    this.receiverId = receiverId;
+    this.idempotencyKey = idempotencyKey;
+    this.requestHash = requestHash;
+    this.deliveryNumber = deliveryNumber;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getReceiverId() {
+    return receiverId;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public String getRequestHash() {
+    return requestHash;
+  }
+
+  public String getDeliveryNumber() {
+    return deliveryNumber;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+}
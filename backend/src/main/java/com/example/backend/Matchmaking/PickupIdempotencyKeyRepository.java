@@ -0,0 +1,24 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.transaction.Transactional;
+import java.util.Date;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PickupIdempotencyKeyRepository
+  extends JpaRepository<PickupIdempotencyKey, Long> {
+  Optional<PickupIdempotencyKey> findByReceiverIdAndIdempotencyKey(
+    Long receiverId,
+    String idempotencyKey
+  );
+
+  @Modifying
+  @Transactional
+  @Query("DELETE FROM PickupIdempotencyKey k WHERE k.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") Date cutoff);
+}
@@ -0,0 +1,246 @@
+package com.example.backend.Matchmaking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replays pickup creation responses for retried requests.
+ *
+ * Keys belong to a receiver, so two receivers can pick the same key without
+ * seeing each other's deliveries. A key is bound to the body it was first
+ * sent with: reusing it for a different order is answered with 422 instead
+ * of replaying the old response.
+ *
+ * Seen keys are kept in a bounded, time-expiring map so a retry is answered
+ * with one hash lookup and no database work. The pickup_idempotency_keys
+ * table, unique on (receiver, key), backs the map: it catches retries that
+ * land after a restart, after eviction or on another node. The key row is
+ * inserted by PickupRequestWriter in the order's own transaction, so a key
+ * exists exactly when its order does, and a replay is rebuilt from the
+ * order's CREATED events, which are never updated or deleted.
+ */
+@Service
+public class PickupIdempotencyService {
+
+  private static final long IN_FLIGHT_WAIT_SECONDS = 30;
+
+  private static final String CREATED_LINES_SQL =
+    "SELECT pickup_request_id, delivery_number, receiver_id, donor_id, food_item_id, quantity, " +
+    "pickup_date, pickup_time, occurred_at FROM pickup_events " +
+    "WHERE event_type = 'CREATED' AND delivery_number = ? ORDER BY id";
+
+  private static final String KEY_REUSED =
+    "Idempotency-Key was already used with a different request body";
+
+  private final PickupIdempotencyKeyRepository keyRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  // Insertion order, used for both TTL and size eviction
+  private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+  private static final Logger log = LoggerFactory.getLogger(PickupIdempotencyService.class);
+
+  public PickupIdempotencyService(
+    PickupIdempotencyKeyRepository keyRepository,
+    JdbcTemplate jdbcTemplate,
+    ObjectMapper objectMapper,
+    @Value("${pickup-idempotency.ttl-hours:24}") long ttlHours,
+    @Value("${pickup-idempotency.max-entries:100000}") int maxEntries
+  ) {
+    this.keyRepository = keyRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+    this.maxEntries = maxEntries;
+  }
+
+  /** A key to insert with the order, see PickupRequestWriter.createAll. */
+  public record Claim(Long receiverId, String key, String requestHash) {}
+
+  /**
+   * Runs the creation once per receiver and key. Later calls with the same
+   * key and body get the original response; a failed creation writes no key,
+   * so it can be retried.
+   */
+  public ResponseEntity<?> execute(
+    Long receiverId,
+    String key,
+    Object body,
+    Function<Claim, ResponseEntity<?>> create
+  ) {
+    String requestHash = hash(body);
+    String mapKey = receiverId + ":" + key;
+    Entry entry = new Entry(mapKey, requestHash, System.currentTimeMillis() + ttlMillis);
+    while (true) {
+      Entry existing = entries.putIfAbsent(mapKey, entry);
+      if (existing == null) {
+        break;
+      }
+      if (existing.expiresAt > System.currentTimeMillis()) {
+        if (!existing.requestHash.equals(requestHash)) {
+          return ResponseEntity.unprocessableEntity().body(KEY_REUSED);
+        }
+        return await(existing);
+      }
+      entries.remove(mapKey, existing);
+    }
+
+    ResponseEntity<?> response;
+    try {
+      Claim claim = new Claim(receiverId, key, requestHash);
+      // A key committed earlier, after a restart or on another node, is answered from the database
+      response = replayFromDatabase(claim);
+      if (response == null) {
+        response = create.apply(claim);
+      }
+    } catch (RuntimeException e) {
+      entries.remove(mapKey, entry);
+      entry.response.completeExceptionally(e);
+      throw e;
+    }
+
+    entry.response.complete(response);
+    if (response.getStatusCode().is2xxSuccessful()) {
+      order.add(entry);
+      trim();
+    } else {
+      entries.remove(mapKey, entry);
+    }
+    return response;
+  }
+
+  /**
+   * Answer for a claim whose key turned out to be taken when the order was
+   * written: another request with the same key committed first.
+   */
+  public ResponseEntity<?> replay(Claim claim) {
+    ResponseEntity<?> response = replayFromDatabase(claim);
+    return response != null
+      ? response
+      : ResponseEntity
+        .status(HttpStatus.CONFLICT)
+        .body("A request with this Idempotency-Key is still being processed");
+  }
+
+  // Null when the key has not been used yet
+  private ResponseEntity<?> replayFromDatabase(Claim claim) {
+    PickupIdempotencyKey claimed = keyRepository
+      .findByReceiverIdAndIdempotencyKey(claim.receiverId(), claim.key())
+      .orElse(null);
+    if (claimed == null) {
+      return null;
+    }
+    if (!claimed.getRequestHash().equals(claim.requestHash())) {
+      return ResponseEntity.unprocessableEntity().body(KEY_REUSED);
+    }
+    // The same lines the original response carried, as the writer returned them
+    List<PickupRequest> requests = jdbcTemplate.query(
+      CREATED_LINES_SQL,
+      (rs, rowNum) -> {
+        PickupRequest request = new PickupRequest();
+        request.setId(rs.getLong("pickup_request_id"));
+        request.setDeliveryNumber(rs.getString("delivery_number"));
+        request.setReceiverId(rs.getLong("receiver_id"));
+        request.setDonorId(rs.getLong("donor_id"));
+        request.setFoodItemId(rs.getLong("food_item_id"));
+        request.setQuantity(rs.getInt("quantity"));
+        request.setPickupDate(rs.getDate("pickup_date").toLocalDate());
+        request.setPickupTime(rs.getTime("pickup_time").toLocalTime());
+        request.setStatus("PENDING");
+        request.setCreatedAt(rs.getTimestamp("occurred_at"));
+        request.setUpdatedAt(rs.getTimestamp("occurred_at"));
+        return request;
+      },
+      claimed.getDeliveryNumber()
+    );
+    return ResponseEntity.ok(new PickupRequestResponse(requests));
+  }
+
+  // Hash of the body as JSON, so formatting differences in the retried request do not count
+  private String hash(Object body) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(body);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Failed to hash pickup request body", e);
+    }
+  }
+
+  private ResponseEntity<?> await(Entry entry) {
+    try {
+      return entry.response.get(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      // Fall through: the original attempt failed or is taking too long
+    }
+    return ResponseEntity
+      .status(HttpStatus.CONFLICT)
+      .body("A request with this Idempotency-Key is still being processed");
+  }
+
+  private void trim() {
+    while (entries.size() > maxEntries) {
+      Entry oldest = order.poll();
+      if (oldest == null) {
+        return;
+      }
+      entries.remove(oldest.key, oldest);
+    }
+  }
+
+  @Scheduled(fixedDelay = 60000)
+  public void evictExpired() {
+    long now = System.currentTimeMillis();
+    Entry head;
+    while ((head = order.peek()) != null && head.expiresAt <= now) {
+      if (order.remove(head)) {
+        entries.remove(head.key, head);
+      }
+    }
+  }
+
+  @Scheduled(cron = "0 30 * * * ?") // Every hour
+  public void purgeExpiredKeys() {
+    int removed = keyRepository.deleteCreatedBefore(
+      new Date(System.currentTimeMillis() - ttlMillis)
+    );
+    if (removed > 0) {
+      log.info("Removed {} expired pickup idempotency keys", removed);
+    }
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final String requestHash;
+    private final long expiresAt;
+    private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+    private Entry(String key, String requestHash, long expiresAt) {
+      this.key = key;
+      this.requestHash = requestHash;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
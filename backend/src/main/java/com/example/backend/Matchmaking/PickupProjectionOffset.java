@@ -0,0 +1,26 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+
+/**
+ * Last pickup event applied by each projector.
+ */
+@Entity
+@Table(name = "pickup_projection_offsets")
+public class PickupProjectionOffset {
+
+  @Id
+  @Column(name = "name", length = 50)
+  private String name;
+
+  @Column(name = "last_event_id", nullable = false)
+  private Long lastEventId = 0L;
+
+  public String getName() {
+    return name;
+  }
+
+  public Long getLastEventId() {
+    return lastEventId;
+  }
+}
@@ -12,7 +12,16 @@ import org.hibernate.annotations.UpdateTimestamp;
  * This class maps to the pickup_requests table that connects food donors with receivers.
  */
 @Entity
-@Table(name = "pickup_requests")
+@Table(
+  name = "pickup_requests",
+  indexes = {
+    @Index(name = "idx_pickup_requests_donor_status_created", columnList = "donor_id, status, created_at"),
+    @Index(name = "idx_pickup_requests_receiver_status_created", columnList = "receiver_id, status, created_at"),
+    @Index(name = "idx_pickup_requests_donor_created_delivery", columnList = "donor_id, created_at, delivery_number"),
+    @Index(name = "idx_pickup_requests_receiver_created_delivery", columnList = "receiver_id, created_at, delivery_number"),
+    @Index(name = "idx_pickup_requests_delivery_number", columnList = "delivery_number"),
+  }
+)
 public class PickupRequest {
 
   @Id
@@ -1,14 +1,17 @@
 package com.example.backend.Matchmaking;
 
-import com.example.backend.foodItems.FoodItemRepository;
-import jakarta.transaction.Transactional;
+import com.example.backend.foodItems.FoodItemGeoIndex;
+import com.example.backend.foodItems.FoodItemInventoryLedger;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,26 +20,127 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:5173")
 public class PickupRequestController {
 
-  private final FoodItemRepository foodItemRepository;
+  private static final int MAX_BATCH_UPDATES = 1000;
+  private static final int MAX_SLOT_RANGE_DAYS = 31;
+  private static final int MAX_DELIVERY_PAGE_SIZE = 100;
+
   private final PickupRequestRepository pickupRequestRepository;
+  private final FoodItemGeoIndex geoIndex;
+  private final FoodItemInventoryLedger inventoryLedger;
+  private final ReservationHoldService holdService;
+  private final PickupIdempotencyService idempotencyService;
+  private final PickupRequestWriter pickupRequestWriter;
+  private final DeliveryNumberGenerator deliveryNumberGenerator;
+  private final PickupSlotScheduler slotScheduler;
+  private final PickupDashboardQueries dashboardQueries;
 
   @Autowired
   public PickupRequestController(
     PickupRequestRepository pickupRequestRepository,
-    FoodItemRepository foodItemRepository
+    FoodItemGeoIndex geoIndex,
+    FoodItemInventoryLedger inventoryLedger,
+    ReservationHoldService holdService,
+    PickupIdempotencyService idempotencyService,
+    PickupRequestWriter pickupRequestWriter,
+    DeliveryNumberGenerator deliveryNumberGenerator,
+    PickupSlotScheduler slotScheduler,
+    PickupDashboardQueries dashboardQueries
   ) {
-    this.foodItemRepository = foodItemRepository;
     this.pickupRequestRepository = pickupRequestRepository;
+    this.geoIndex = geoIndex;
+    this.inventoryLedger = inventoryLedger;
+    this.holdService = holdService;
+    this.idempotencyService = idempotencyService;
+    this.pickupRequestWriter = pickupRequestWriter;
+    this.deliveryNumberGenerator = deliveryNumberGenerator;
+    this.slotScheduler = slotScheduler;
+    this.dashboardQueries = dashboardQueries;
   }
 
   @PostMapping("/pickup-requests")
   public ResponseEntity<?> createPickupRequest(
+    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
     @RequestBody PickupRequestDTO requestDTO
   ) {
-    String deliveryNumber = generateUniqueDeliveryNumber();
+    String deliveryNumber = deliveryNumberGenerator.next();
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return createPickup(requestDTO, deliveryNumber, null);
+    }
+    if (idempotencyKey.length() > 100) {
+      return ResponseEntity.badRequest().body("Idempotency-Key must be at most 100 characters");
+    }
+    // Keys are scoped to the receiver placing the order
+    if (requestDTO.getReceiverId() == null) {
+      return ResponseEntity.badRequest().body("receiverId is required with an Idempotency-Key");
+    }
+    return idempotencyService.execute(
+      requestDTO.getReceiverId(),
+      idempotencyKey,
+      requestDTO,
+      claim -> createPickup(requestDTO, deliveryNumber, claim)
+    );
+  }
 
+  private ResponseEntity<?> createPickup(
+    PickupRequestDTO requestDTO,
+    String deliveryNumber,
+    PickupIdempotencyService.Claim claim
+  ) {
+    LocalDate pickupDate;
+    LocalTime pickupTime;
     try {
-      List<PickupRequest> createdRequests = requestDTO
+      pickupDate = LocalDate.parse(requestDTO.getPickupDate());
+      pickupTime = LocalTime.parse(requestDTO.getPickupTime());
+    } catch (Exception e) {
+      return ResponseEntity
+        .badRequest()
+        .body("Failed to create pickup request: " + e.getMessage());
+    }
+    if (requestDTO.getDonorId() == null) {
+      return ResponseEntity.badRequest().body("donorId is required");
+    }
+    if (!slotScheduler.isBookable(pickupDate)) {
+      return ResponseEntity
+        .badRequest()
+        .body(
+          "pickupDate must be between today and " +
+          slotScheduler.getHorizonDays() +
+          " days ahead"
+        );
+    }
+    // Capacity is checked when the order is written; this only rejects slots outside the donor's window
+    if (!slotScheduler.isInWindow(requestDTO.getDonorId(), pickupDate, pickupTime)) {
+      return slotUnavailable(requestDTO.getDonorId(), pickupDate, pickupTime);
+    }
+
+    // Claim every line in memory first so over-claims are rejected before anything is written.
+    // Lines carrying a checkout hold already have their quantity reserved.
+    List<PickupItemDTO> reserved = new ArrayList<>();
+    for (PickupItemDTO item : requestDTO.getItems()) {
+      boolean held =
+        item.getHoldId() != null &&
+        item.getQuantity() != null &&
+        holdService.consume(item.getHoldId(), item.getItemId(), item.getQuantity());
+      if (
+        !held &&
+        (item.getQuantity() == null ||
+          item.getQuantity() <= 0 ||
+          !inventoryLedger.tryReserve(
+            item.getItemId(),
+            item.getQuantity(),
+            () -> holdService.heldQuantity(item.getItemId())
+          ))
+      ) {
+        reserved.forEach(r -> inventoryLedger.release(r.getItemId(), r.getQuantity()));
+        return ResponseEntity
+          .status(HttpStatus.CONFLICT)
+          .body("Requested quantity is not available for item " + item.getItemId());
+      }
+      reserved.add(item);
+    }
+
+    try {
+      List<PickupRequest> pickupRequests = requestDTO
         .getItems()
         .stream()
         .map(item -> {
@@ -45,24 +149,43 @@ public class PickupRequestController {
           pickupRequest.setDonorId(requestDTO.getDonorId());
           pickupRequest.setFoodItemId(item.getItemId());
           pickupRequest.setQuantity(item.getQuantity());
-          pickupRequest.setPickupDate(
-            LocalDate.parse(requestDTO.getPickupDate())
-          );
-          pickupRequest.setPickupTime(
-            LocalTime.parse(requestDTO.getPickupTime())
-          );
+          pickupRequest.setPickupDate(pickupDate);
+          pickupRequest.setPickupTime(pickupTime);
           pickupRequest.setStatus("PENDING");
           pickupRequest.setDeliveryNumber(deliveryNumber);
-          foodItemRepository.reduceQuantityById(
-            item.getItemId(),
-            item.getQuantity()
-          );
-          return pickupRequestRepository.save(pickupRequest);
+          return pickupRequest;
         })
         .collect(Collectors.toList());
 
-      return ResponseEntity.ok(new PickupRequestResponse(createdRequests));
+      // One transaction: guarded set-based decrement plus a batched insert
+      PickupRequestWriter.Result result = pickupRequestWriter.createAll(pickupRequests, claim);
+      if (result.isKeyTaken()) {
+        // A retry with the same key committed first; nothing was written for this one
+        reserved.forEach(r -> inventoryLedger.release(r.getItemId(), r.getQuantity()));
+        return idempotencyService.replay(claim);
+      }
+      if (result.isSlotFull()) {
+        // Other orders filled the slot, possibly on another node; the cached day is stale
+        reserved.forEach(r -> inventoryLedger.release(r.getItemId(), r.getQuantity()));
+        slotScheduler.evict(requestDTO.getDonorId(), pickupDate);
+        return slotUnavailable(requestDTO.getDonorId(), pickupDate, pickupTime);
+      }
+      if (!result.isCreated()) {
+        // The table disagrees with the ledger (another node took the stock); reload it next time
+        reserved.forEach(r -> inventoryLedger.evict(r.getItemId()));
+        return ResponseEntity
+          .status(HttpStatus.CONFLICT)
+          .body("Requested quantity is not available for item " + result.getUnavailableItemId());
+      }
+
+      for (PickupItemDTO item : reserved) {
+        geoIndex.adjustQuantity(item.getItemId(), -item.getQuantity());
+      }
+      slotScheduler.booked(requestDTO.getDonorId(), pickupDate, pickupTime);
+
+      return ResponseEntity.ok(new PickupRequestResponse(result.getCreated()));
     } catch (Exception e) {
+      reserved.forEach(r -> inventoryLedger.release(r.getItemId(), r.getQuantity()));
       return ResponseEntity
         .badRequest()
         .body("Failed to create pickup request: " + e.getMessage());
@@ -101,43 +224,165 @@ public class PickupRequestController {
     }
   }
 
+  // Dashboard listings, one row per delivery; pass the previous page's nextCursor as "after"
+  @GetMapping("/pickup-requests/donor/{donorId}/deliveries")
+  public ResponseEntity<?> getDonorDeliveries(
+    @PathVariable Long donorId,
+    @RequestParam(required = false) String status,
+    @RequestParam(required = false) String after,
+    @RequestParam(required = false, defaultValue = "20") int size
+  ) {
+    if (!PickupDashboardQueries.isValidCursor(after)) {
+      return invalidCursor();
+    }
+    try {
+      return ResponseEntity.ok(
+        dashboardQueries.donorDeliveries(donorId, status, after, pageSize(size))
+      );
+    } catch (RuntimeException e) {
+      return ResponseEntity
+        .badRequest()
+        .body("Failed to retrieve deliveries: " + e.getMessage());
+    }
+  }
+
+  @GetMapping("/pickup-requests/receiver/{receiverId}/deliveries")
+  public ResponseEntity<?> getReceiverDeliveries(
+    @PathVariable Long receiverId,
+    @RequestParam(required = false) String status,
+    @RequestParam(required = false) String after,
+    @RequestParam(required = false, defaultValue = "20") int size
+  ) {
+    if (!PickupDashboardQueries.isValidCursor(after)) {
+      return invalidCursor();
+    }
+    try {
+      return ResponseEntity.ok(
+        dashboardQueries.receiverDeliveries(receiverId, status, after, pageSize(size))
+      );
+    } catch (RuntimeException e) {
+      return ResponseEntity
+        .badRequest()
+        .body("Failed to retrieve deliveries: " + e.getMessage());
+    }
+  }
+
+  private ResponseEntity<String> invalidCursor() {
+    return ResponseEntity.badRequest().body("after must be the nextCursor of a previous page");
+  }
+
+  private int pageSize(int size) {
+    return Math.max(1, Math.min(size, MAX_DELIVERY_PAGE_SIZE));
+  }
+
+  // Open pickup slots for a donor, e.g. ?from=2025-05-01&to=2025-05-07
+  @GetMapping("/pickup-slots/donor/{donorId}")
+  public ResponseEntity<?> getOpenSlots(
+    @PathVariable Long donorId,
+    @RequestParam String from,
+    @RequestParam(required = false) String to
+  ) {
+    LocalDate start;
+    LocalDate end;
+    try {
+      start = LocalDate.parse(from);
+      end = to != null ? LocalDate.parse(to) : start;
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().body("Invalid date: " + e.getMessage());
+    }
+    if (end.isBefore(start) || end.isAfter(start.plusDays(MAX_SLOT_RANGE_DAYS - 1))) {
+      return ResponseEntity
+        .badRequest()
+        .body("Date range must cover 1 to " + MAX_SLOT_RANGE_DAYS + " days");
+    }
+    if (!slotScheduler.isBookable(start) || !slotScheduler.isBookable(end)) {
+      return ResponseEntity
+        .badRequest()
+        .body("Dates must be between today and " + slotScheduler.getHorizonDays() + " days ahead");
+    }
+    return ResponseEntity.ok(slotScheduler.openSlots(donorId, start, end));
+  }
+
   @PatchMapping("/pickup-requests/delivery-number/{deliveryNumber}/status")
-  @Transactional
   public ResponseEntity<?> updateDeliveryStatus(
     @PathVariable String deliveryNumber,
     @RequestBody StatusDTO statusUpdate
   ) {
-    List<PickupRequest> requests = pickupRequestRepository.findByDeliveryNumber(
-      deliveryNumber
+    if (statusUpdate.getStatus() == null) {
+      return ResponseEntity.badRequest().body("status is required");
+    }
+    PickupRequestWriter.Transition transition = applyTransitions(
+      Map.of(deliveryNumber, statusUpdate.getStatus())
     );
-    if (requests.isEmpty()) {
+    if (transition.getProcessed().isEmpty()) {
       return ResponseEntity.notFound().build();
     }
-    for (PickupRequest req : requests) {
-      System.out.println(statusUpdate.getStatus());
-      if (statusUpdate.getStatus().equals("CANCELLED")) {
-        foodItemRepository.increaseQuantityById(
-          req.getFoodItemId(),
-          req.getQuantity()
-        );
-        pickupRequestRepository.deleteById(req.getId());
-      } else {
-        pickupRequestRepository.deleteById(req.getId());
-        foodItemRepository.deleteIfZeroQuantity(req.getFoodItemId());
+    return ResponseEntity.ok().build();
+  }
+
+  // End-of-route sync: many delivery numbers in one call, written set-based
+  @PostMapping("/pickup-requests/status/batch")
+  public ResponseEntity<?> updateDeliveryStatuses(
+    @RequestBody List<StatusUpdateDTO> updates
+  ) {
+    if (updates == null || updates.isEmpty()) {
+      return ResponseEntity.badRequest().body("No status updates given");
+    }
+    if (updates.size() > MAX_BATCH_UPDATES) {
+      return ResponseEntity
+        .badRequest()
+        .body("At most " + MAX_BATCH_UPDATES + " status updates per call");
+    }
+    // Later updates for the same delivery number win
+    Map<String, String> statusByDeliveryNumber = new LinkedHashMap<>();
+    for (StatusUpdateDTO update : updates) {
+      if (update.getDeliveryNumber() == null || update.getStatus() == null) {
+        return ResponseEntity
+          .badRequest()
+          .body("Each update needs a deliveryNumber and a status");
       }
+      statusByDeliveryNumber.put(update.getDeliveryNumber(), update.getStatus());
     }
-    return ResponseEntity.ok().build();
+
+    PickupRequestWriter.Transition transition = applyTransitions(statusByDeliveryNumber);
+    List<String> notFound = statusByDeliveryNumber
+      .keySet()
+      .stream()
+      .filter(number -> !transition.getProcessed().contains(number))
+      .collect(Collectors.toList());
+    return ResponseEntity.ok(
+      new BatchStatusResponse(new ArrayList<>(transition.getProcessed()), notFound)
+    );
+  }
+
+  private ResponseEntity<?> slotUnavailable(Long donorId, LocalDate date, LocalTime time) {
+    LocalTime next = slotScheduler.nextFree(donorId, date, time);
+    return ResponseEntity
+      .status(HttpStatus.CONFLICT)
+      .body(
+        "Pickup slot is not available" +
+        (next != null ? "; next free slot that day starts at " + next : "")
+      );
   }
 
-  private String generateUniqueDeliveryNumber() {
-    // Format: DEL-YYYYMMDD-XXXXXX where XXXXXX is a random number
-    LocalDate today = LocalDate.now();
-    String datePart = today.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-    String randomPart = String.format(
-      "%06d",
-      ThreadLocalRandom.current().nextInt(1, 1000000)
+  private PickupRequestWriter.Transition applyTransitions(
+    Map<String, String> statusByDeliveryNumber
+  ) {
+    PickupRequestWriter.Transition transition = pickupRequestWriter.transition(
+      statusByDeliveryNumber
     );
-    return "DEL-" + datePart + "-" + randomPart;
+    for (PickupRequestWriter.ItemQuantity restored : transition.getRestored()) {
+      geoIndex.adjustQuantity(restored.itemId(), restored.quantity());
+      inventoryLedger.release(restored.itemId(), restored.quantity());
+    }
+    for (PickupRequestWriter.BookedSlot slot : transition.getReleasedSlots()) {
+      slotScheduler.release(slot.donorId(), slot.pickupDate(), slot.pickupTime());
+    }
+    for (Long itemId : transition.getRemovedItemIds()) {
+      geoIndex.remove(itemId);
+      inventoryLedger.evict(itemId);
+    }
+    return transition;
   }
 }
 
@@ -224,6 +469,8 @@ class PickupItemDTO {
 
   private Long itemId;
   private Integer quantity;
+  // Optional: id of a checkout hold placed through /api/holds
+  private String holdId;
 
   // Getters and setters
   public Long getItemId() {
@@ -234,6 +481,14 @@ class PickupItemDTO {
     this.itemId = itemId;
   }
 
+  public String getHoldId() {
+    return holdId;
+  }
+
+  public void setHoldId(String holdId) {
+    this.holdId = holdId;
+  }
+
   public Integer getQuantity() {
     return quantity;
   }
@@ -248,9 +503,18 @@ class PickupItemDTO {
  */
 class StatusUpdateDTO {
 
+  private String deliveryNumber;
   private String status;
 
   // Getters and setters
+  public String getDeliveryNumber() {
+    return deliveryNumber;
+  }
+
+  public void setDeliveryNumber(String deliveryNumber) {
+    this.deliveryNumber = deliveryNumber;
+  }
+
   public String getStatus() {
     return status;
   }
@@ -279,3 +543,155 @@ class PickupRequestResponse {
     this.requests = requests;
   }
 }
+
+/**
+ * Response object for batch status updates.
+ */
+class BatchStatusResponse {
+
+  private List<String> updated;
+  private List<String> notFound;
+
+  public BatchStatusResponse(List<String> updated, List<String> notFound) {
+    this.updated = updated;
+    this.notFound = notFound;
+  }
+
+  public List<String> getUpdated() {
+    return updated;
+  }
+
+  public List<String> getNotFound() {
+    return notFound;
+  }
+}
+
+/**
+ * One page of deliveries plus the cursor for the next page (null on the last page).
+ */
+class DeliveryPage {
+
+  private List<DeliverySummary> deliveries;
+  private String nextCursor;
+
+  public DeliveryPage(List<DeliverySummary> deliveries, String nextCursor) {
+    this.deliveries = deliveries;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<DeliverySummary> getDeliveries() {
+    return deliveries;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
+
+/**
+ * A delivery with its lines and the user on the other side of it.
+ */
+class DeliverySummary {
+
+  private String deliveryNumber;
+  private String status;
+  private LocalDate pickupDate;
+  private LocalTime pickupTime;
+  private Date createdAt;
+  private Counterpart counterpart;
+  private List<DeliveryLine> items = new ArrayList<>();
+
+  public DeliverySummary(
+    String deliveryNumber,
+    String status,
+    LocalDate pickupDate,
+    LocalTime pickupTime,
+    Date createdAt,
+    Counterpart counterpart
+  ) {
+    this.deliveryNumber = deliveryNumber;
+    this.status = status;
+    this.pickupDate = pickupDate;
+    this.pickupTime = pickupTime;
+    this.createdAt = createdAt;
+    this.counterpart = counterpart;
+  }
+
+  public String getDeliveryNumber() {
+    return deliveryNumber;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public LocalDate getPickupDate() {
+    return pickupDate;
+  }
+
+  public LocalTime getPickupTime() {
+    return pickupTime;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+
+  public Counterpart getCounterpart() {
+    return counterpart;
+  }
+
+  public List<DeliveryLine> getItems() {
+    return items;
+  }
+}
+
+class DeliveryLine {
+
+  private Long foodItemId;
+  private String name;
+  private Integer quantity;
+
+  public DeliveryLine(Long foodItemId, String name, Integer quantity) {
+    this.foodItemId = foodItemId;
+    this.name = name;
+    this.quantity = quantity;
+  }
+
+  public Long getFoodItemId() {
+    return foodItemId;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Integer getQuantity() {
+    return quantity;
+  }
+}
+
+class Counterpart {
+
+  private Long id;
+  private String username;
+  private String email;
+
+  public Counterpart(Long id, String username, String email) {
+    this.id = id;
+    this.username = username;
+    this.email = email;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getEmail() {
+    return email;
+  }
+}
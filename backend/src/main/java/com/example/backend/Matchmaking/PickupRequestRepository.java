@@ -1,5 +1,6 @@
 package com.example.backend.Matchmaking;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 public interface PickupRequestRepository
   extends JpaRepository<PickupRequest, Long> {
   List<PickupRequest> findByDeliveryNumber(String deliveryNumber);
+  List<PickupRequest> findByDeliveryNumberIn(Collection<String> deliveryNumbers);
   List<PickupRequest> findByDonorId(Long donorId);
   List<PickupRequest> findByReceiverId(Long receiverId);
 }
@@ -0,0 +1,365 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.FoodItemIds;
+import com.example.backend.foodItems.ItemFeedChange;
+import com.example.backend.foodItems.ItemFeedPublisher;
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxWriter;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The write path for pickups. Orders and status changes are appended to the
+ * pickup_events log; the pickup_requests table and the delivery history are
+ * read models built from it by the projectors.
+ *
+ * An order is one transaction with a fixed number of statements: a guarded
+ * multi-row UPDATE takes the quantities off food_items and the CREATED events
+ * go in as a single JDBC batch. If any line is short the transaction rolls
+ * back and nothing is written. An idempotency key sent with the order is
+ * claimed in the same transaction, so the key and the order commit or roll
+ * back together. Status transitions are set-based the same way.
+ */
+@Component
+public class PickupRequestWriter {
+
+  private static final String DECREMENT_SQL =
+    "UPDATE food_items f SET quantity = f.quantity - v.qty " +
+    "FROM unnest(?::bigint[], ?::int[]) AS v(id, qty) " +
+    "WHERE f.id = v.id AND f.quantity >= v.qty AND f.expiry_date >= CURRENT_DATE " +
+    "RETURNING f.id";
+
+  // Waits for a concurrent claim of the same key; inserts nothing if that one commits
+  private static final String CLAIM_KEY_SQL =
+    "INSERT INTO pickup_idempotency_keys (receiver_id, idempotency_key, request_hash, delivery_number, created_at) " +
+    "VALUES (?, ?, ?, ?, now()) ON CONFLICT (receiver_id, idempotency_key) DO NOTHING";
+
+  // Ids are taken from pickup_requests so the projected rows keep them
+  private static final String NEXT_IDS_SQL =
+    "SELECT nextval(pg_get_serial_sequence('pickup_requests', 'id')) " +
+    "FROM generate_series(1, ?)";
+
+  private static final String INSERT_CREATED_SQL =
+    "INSERT INTO pickup_events (event_type, delivery_number, pickup_request_id, receiver_id, " +
+    "donor_id, food_item_id, quantity, pickup_date, pickup_time, occurred_at) " +
+    "VALUES ('CREATED', ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  // Serialises transitions per delivery, in a fixed order so batches cannot deadlock
+  private static final String LOCK_SQL =
+    "SELECT pg_advisory_xact_lock(hashtext(d)) " +
+    "FROM (SELECT d FROM unnest(?::varchar[]) AS d ORDER BY d) s";
+
+  private static final String LAST_EVENT_SQL =
+    "SELECT DISTINCT ON (delivery_number) delivery_number, event_type FROM pickup_events " +
+    "WHERE delivery_number = ANY(?::varchar[]) ORDER BY delivery_number, id DESC";
+
+  // One event per delivery, copying who and when from its first CREATED line
+  private static final String INSERT_TRANSITION_SQL =
+    "INSERT INTO pickup_events (event_type, delivery_number, receiver_id, donor_id, " +
+    "pickup_date, pickup_time, occurred_at) " +
+    "SELECT DISTINCT ON (delivery_number) CAST(? AS varchar), delivery_number, receiver_id, donor_id, " +
+    "pickup_date, pickup_time, now() FROM pickup_events " +
+    "WHERE event_type = 'CREATED' AND delivery_number = ANY(?::varchar[]) " +
+    "ORDER BY delivery_number, id " +
+    "RETURNING delivery_number, donor_id, pickup_date, pickup_time";
+
+  private static final String RESTORE_SQL =
+    "UPDATE food_items f SET quantity = f.quantity + r.qty " +
+    "FROM (SELECT food_item_id, SUM(quantity) AS qty FROM pickup_events " +
+    "  WHERE event_type = 'CREATED' AND delivery_number = ANY(?::varchar[]) " +
+    "  GROUP BY food_item_id) r " +
+    "WHERE f.id = r.food_item_id RETURNING f.id, r.qty";
+
+  private static final String DELETE_EMPTIED_SQL =
+    "DELETE FROM food_items f USING (" +
+    "  SELECT DISTINCT food_item_id FROM pickup_events " +
+    "  WHERE event_type = 'CREATED' AND delivery_number = ANY(?::varchar[])) r " +
+    "WHERE f.id = r.food_item_id AND f.quantity = 0 RETURNING f.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxWriter outboxWriter;
+  private final PickupSlotScheduler slotScheduler;
+
+  public PickupRequestWriter(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager,
+    OutboxWriter outboxWriter,
+    PickupSlotScheduler slotScheduler
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.outboxWriter = outboxWriter;
+    this.slotScheduler = slotScheduler;
+  }
+
+  /**
+   * Takes a place in the pickup slot, decrements stock and records the given
+   * requests, which share one delivery. On success the requests get their ids
+   * and timestamps; otherwise the result says the slot was full, names an
+   * item whose quantity was not available, or says the idempotency key (may
+   * be null) was already used.
+   */
+  public Result createAll(List<PickupRequest> requests, PickupIdempotencyService.Claim claim) {
+    // Lines for the same item are checked against their combined quantity
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    for (PickupRequest request : requests) {
+      quantities.merge(request.getFoodItemId(), request.getQuantity(), Integer::sum);
+    }
+    Long[] ids = quantities.keySet().toArray(new Long[0]);
+    Integer[] amounts = quantities.values().toArray(new Integer[0]);
+
+    return transactionTemplate.execute(status -> {
+      if (
+        claim != null &&
+        jdbcTemplate.update(
+          CLAIM_KEY_SQL,
+          claim.receiverId(),
+          claim.key(),
+          claim.requestHash(),
+          requests.get(0).getDeliveryNumber()
+        ) ==
+        0
+      ) {
+        return Result.keyTaken();
+      }
+      PickupRequest first = requests.get(0);
+      if (!slotScheduler.claim(first.getDonorId(), first.getPickupDate(), first.getPickupTime())) {
+        status.setRollbackOnly();
+        return Result.slotFull();
+      }
+      List<Long> updated = jdbcTemplate.queryForList(DECREMENT_SQL, Long.class, ids, amounts);
+      if (updated.size() != ids.length) {
+        status.setRollbackOnly();
+        Long missing = quantities
+          .keySet()
+          .stream()
+          .filter(id -> !updated.contains(id))
+          .findFirst()
+          .orElse(null);
+        return Result.unavailable(missing);
+      }
+
+      // The writes above gave the transaction its xid before the events take ids
+      List<Long> requestIds = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, requests.size());
+      java.util.Date now = new java.util.Date();
+      for (int i = 0; i < requests.size(); i++) {
+        PickupRequest request = requests.get(i);
+        request.setId(requestIds.get(i));
+        request.setCreatedAt(now);
+        request.setUpdatedAt(now);
+      }
+      jdbcTemplate.batchUpdate(
+        INSERT_CREATED_SQL,
+        requests,
+        requests.size(),
+        (ps, request) -> {
+          ps.setString(1, request.getDeliveryNumber());
+          ps.setLong(2, request.getId());
+          ps.setLong(3, request.getReceiverId());
+          ps.setLong(4, request.getDonorId());
+          ps.setLong(5, request.getFoodItemId());
+          ps.setInt(6, request.getQuantity());
+          ps.setDate(7, Date.valueOf(request.getPickupDate()));
+          ps.setTime(8, Time.valueOf(request.getPickupTime()));
+          ps.setTimestamp(9, new Timestamp(now.getTime()));
+        }
+      );
+      // Search results and the live feed show the remaining quantity; the feed's
+      // NOTIFY goes through the relay so it stays off this commit
+      outboxWriter.append(OutboxEvent.SEARCH_SYNC, new FoodItemIds(updated));
+      outboxWriter.append(OutboxEvent.ITEM_FEED, new ItemFeedChange(ItemFeedPublisher.RESERVED, updated));
+      return Result.created(requests);
+    });
+  }
+
+  /**
+   * Appends status events for deliveries that are still open. Each target
+   * status costs one insert, whatever the number of deliveries. CANCELLED
+   * restores the item quantities and CONFIRMED only marks the delivery; any
+   * other status completes it and removes items it used up. Stock changes
+   * commit with the events, so replaying the log never touches food_items.
+   */
+  public Transition transition(Map<String, String> statusByDeliveryNumber) {
+    String[] all = statusByDeliveryNumber.keySet().toArray(new String[0]);
+
+    return transactionTemplate.execute(status -> {
+      Transition transition = new Transition();
+      jdbcTemplate.query(LOCK_SQL, rs -> {}, (Object) all);
+
+      Map<String, List<String>> byEvent = new LinkedHashMap<>();
+      jdbcTemplate.query(
+        LAST_EVENT_SQL,
+        rs -> {
+          String deliveryNumber = rs.getString("delivery_number");
+          String last = rs.getString("event_type");
+          // Cancelled and completed deliveries are closed
+          if (PickupEvent.CREATED.equals(last) || PickupEvent.CONFIRMED.equals(last)) {
+            byEvent
+              .computeIfAbsent(eventFor(statusByDeliveryNumber.get(deliveryNumber)), k -> new ArrayList<>())
+              .add(deliveryNumber);
+          }
+        },
+        (Object) all
+      );
+
+      if (!byEvent.isEmpty()) {
+        jdbcTemplate.query(PickupEventProjector.ASSIGN_XID_SQL, rs -> {});
+      }
+      byEvent.forEach((eventType, deliveryNumbers) -> {
+        String[] numbers = deliveryNumbers.toArray(new String[0]);
+        jdbcTemplate.query(
+          INSERT_TRANSITION_SQL,
+          rs -> {
+            transition.processed.add(rs.getString("delivery_number"));
+            if (PickupEvent.CANCELLED.equals(eventType)) {
+              transition.releasedSlots.add(
+                new BookedSlot(
+                  rs.getLong("donor_id"),
+                  rs.getDate("pickup_date").toLocalDate(),
+                  rs.getTime("pickup_time").toLocalTime()
+                )
+              );
+            }
+          },
+          eventType,
+          numbers
+        );
+        if (PickupEvent.CANCELLED.equals(eventType)) {
+          for (BookedSlot slot : transition.releasedSlots) {
+            slotScheduler.unclaim(slot.donorId(), slot.pickupDate(), slot.pickupTime());
+          }
+          jdbcTemplate.query(
+            RESTORE_SQL,
+            rs -> {
+              transition.restored.add(new ItemQuantity(rs.getLong("id"), rs.getInt("qty")));
+            },
+            (Object) numbers
+          );
+        } else if (PickupEvent.COMPLETED.equals(eventType)) {
+          transition.removedItemIds.addAll(
+            jdbcTemplate.queryForList(DELETE_EMPTIED_SQL, Long.class, (Object) numbers)
+          );
+        }
+      });
+
+      List<Long> changedItemIds = new ArrayList<>(transition.removedItemIds);
+      transition.restored.forEach(restored -> changedItemIds.add(restored.itemId()));
+      if (!changedItemIds.isEmpty()) {
+        outboxWriter.append(OutboxEvent.SEARCH_SYNC, new FoodItemIds(changedItemIds));
+      }
+      if (!transition.restored.isEmpty()) {
+        outboxWriter.append(
+          OutboxEvent.ITEM_FEED,
+          new ItemFeedChange(
+            ItemFeedPublisher.RELEASED,
+            transition.restored.stream().map(ItemQuantity::itemId).toList()
+          )
+        );
+      }
+      return transition;
+    });
+  }
+
+  // Clients send DELIVERED for a finished pickup; anything but CANCELLED or CONFIRMED completes it
+  private static String eventFor(String status) {
+    if (PickupEvent.CANCELLED.equals(status) || PickupEvent.CONFIRMED.equals(status)) {
+      return status;
+    }
+    return PickupEvent.COMPLETED;
+  }
+
+  public record ItemQuantity(Long itemId, int quantity) {}
+
+  public record BookedSlot(Long donorId, LocalDate pickupDate, LocalTime pickupTime) {}
+
+  public static final class Transition {
+
+    private final Set<String> processed = new HashSet<>();
+    private final List<ItemQuantity> restored = new ArrayList<>();
+    private final List<Long> removedItemIds = new ArrayList<>();
+    private final List<BookedSlot> releasedSlots = new ArrayList<>();
+
+    // Delivery numbers that were open and got an event
+    public Set<String> getProcessed() {
+      return processed;
+    }
+
+    public List<ItemQuantity> getRestored() {
+      return restored;
+    }
+
+    public List<Long> getRemovedItemIds() {
+      return removedItemIds;
+    }
+
+    // Slots freed by cancelled deliveries
+    public List<BookedSlot> getReleasedSlots() {
+      return releasedSlots;
+    }
+  }
+
+  public static final class Result {
+
+    private final List<PickupRequest> created;
+    private final Long unavailableItemId;
+    private final boolean keyTaken;
+    private final boolean slotFull;
+
+    private Result(List<PickupRequest> created, Long unavailableItemId, boolean keyTaken, boolean slotFull) {
+      this.created = created;
+      this.unavailableItemId = unavailableItemId;
+      this.keyTaken = keyTaken;
+      this.slotFull = slotFull;
+    }
+
+    static Result created(List<PickupRequest> created) {
+      return new Result(created, null, false, false);
+    }
+
+    static Result unavailable(Long itemId) {
+      return new Result(null, itemId, false, false);
+    }
+
+    static Result keyTaken() {
+      return new Result(null, null, true, false);
+    }
+
+    static Result slotFull() {
+      return new Result(null, null, false, true);
+    }
+
+    public boolean isSlotFull() {
+      return slotFull;
+    }
+
+    public boolean isKeyTaken() {
+      return keyTaken;
+    }
+
+    public boolean isCreated() {
+      return created != null;
+    }
+
+    public List<PickupRequest> getCreated() {
+      return created;
+    }
+
+    public Long getUnavailableItemId() {
+      return unavailableItemId;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.backend.Matchmaking;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Number of open deliveries booked into one donor's pickup slot. This is the
+ * record PickupSlotScheduler enforces capacity against: rows are claimed
+ * with a guarded upsert in the transaction that writes the order, and given
+ * back when the delivery is cancelled. Only the table definition lives here;
+ * rows are written and read with JDBC.
+ */
+@Entity
+@Table(
+  name = "pickup_slot_bookings",
+  uniqueConstraints = @UniqueConstraint(
+    name = "uk_pickup_slot_bookings_slot",
+    columnNames = { "donor_id", "pickup_date", "slot_start" }
+  )
+)
+public class PickupSlotBooking {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "donor_id", nullable = false)
+  private Long donorId;
+
+  @Column(name = "pickup_date", nullable = false)
+  private LocalDate pickupDate;
+
+  @Column(name = "slot_start", nullable = false)
+  private LocalTime slotStart;
+
+  @Column(name = "booked", nullable = false)
+  private int booked;
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getDonorId() {
+    return donorId;
+  }
+
+  public LocalDate getPickupDate() {
+    return pickupDate;
+  }
+
+  public LocalTime getSlotStart() {
+    return slotStart;
+  }
+
+  public int getBooked() {
+    return booked;
+  }
+}
@@ -0,0 +1,347 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.users.User;
+import com.example.backend.users.UserRepository;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Books pickups into fixed-length slots inside each donor's availability
+ * window, with a capacity per slot.
+ *
+ * Capacity is enforced in PostgreSQL: {@link #claim} takes a place in the
+ * slot's pickup_slot_bookings row with a guarded upsert, in the transaction
+ * that writes the order, so every node sees the same count and a rolled
+ * back order books nothing.
+ *
+ * Availability reads are served from a read cache. Each donor-day is a
+ * bitmap of bookable slots (inside the window and not full) plus a count per
+ * slot, loaded from pickup_slot_bookings; checking a slot touches one word
+ * and finding the next free slot is a trailing-zeros scan over a handful of
+ * words. This node's own bookings and cancellations are applied to cached
+ * days as they commit; a day is reloaded after cache-seconds so changes made
+ * on other nodes show up, and only days from today to horizon-days ahead are
+ * cached.
+ *
+ * An overnight window (from later than to) wraps past midnight: the slots
+ * from "from" to the end of the day and from midnight to "to" are bookable.
+ */
+@Component
+public class PickupSlotScheduler {
+
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private static final String CLAIM_SQL =
+    "INSERT INTO pickup_slot_bookings (donor_id, pickup_date, slot_start, booked) VALUES (?, ?, ?, 1) " +
+    "ON CONFLICT (donor_id, pickup_date, slot_start) " +
+    "DO UPDATE SET booked = pickup_slot_bookings.booked + 1 WHERE pickup_slot_bookings.booked < ?";
+
+  private static final String UNCLAIM_SQL =
+    "UPDATE pickup_slot_bookings SET booked = booked - 1 " +
+    "WHERE donor_id = ? AND pickup_date = ? AND slot_start = ? AND booked > 0";
+
+  private static final String LOAD_SQL =
+    "SELECT pickup_date, slot_start, booked FROM pickup_slot_bookings " +
+    "WHERE donor_id = ? AND pickup_date BETWEEN ? AND ? AND booked > 0";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UserRepository userRepository;
+  private final int slotMinutes;
+  private final int capacity;
+  private final int horizonDays;
+  private final long cacheMillis;
+  private final int cacheMaxDays;
+  private final ConcurrentHashMap<DayKey, DaySchedule> days = new ConcurrentHashMap<>();
+
+  public PickupSlotScheduler(
+    JdbcTemplate jdbcTemplate,
+    UserRepository userRepository,
+    @Value("${pickup-slots.minutes:15}") int slotMinutes,
+    @Value("${pickup-slots.capacity:3}") int capacity,
+    @Value("${pickup-slots.horizon-days:60}") int horizonDays,
+    @Value("${pickup-slots.cache-seconds:30}") long cacheSeconds,
+    @Value("${pickup-slots.cache-max-days:10000}") int cacheMaxDays
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.userRepository = userRepository;
+    this.slotMinutes = slotMinutes;
+    this.capacity = capacity;
+    this.horizonDays = horizonDays;
+    this.cacheMillis = cacheSeconds * 1000;
+    this.cacheMaxDays = cacheMaxDays;
+  }
+
+  public record Slot(LocalTime start, int remaining) {}
+
+  public record DaySlots(LocalDate date, List<Slot> slots) {}
+
+  // Pickups can be booked from today up to horizon-days ahead
+  public boolean isBookable(LocalDate date) {
+    LocalDate today = LocalDate.now();
+    return !date.isBefore(today) && !date.isAfter(today.plusDays(horizonDays));
+  }
+
+  public int getHorizonDays() {
+    return horizonDays;
+  }
+
+  // Whether the time falls in a slot inside the donor's window on a bookable day; says nothing about capacity
+  public boolean isInWindow(Long donorId, LocalDate date, LocalTime time) {
+    return isBookable(date) && schedule(donorId, date).isInWindow(slotOf(time));
+  }
+
+  /**
+   * Takes one place in the slot containing the given time, in the caller's
+   * transaction. False when the slot is full; the caller should roll back.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public boolean claim(Long donorId, LocalDate date, LocalTime time) {
+    return jdbcTemplate.update(CLAIM_SQL, donorId, Date.valueOf(date), Time.valueOf(startOf(slotOf(time))), capacity) > 0;
+  }
+
+  // Gives a place back, in the transaction that cancels the delivery
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void unclaim(Long donorId, LocalDate date, LocalTime time) {
+    jdbcTemplate.update(UNCLAIM_SQL, donorId, Date.valueOf(date), Time.valueOf(startOf(slotOf(time))));
+  }
+
+  // After a claim commits: counts it in the cached day, if there is one
+  public void booked(Long donorId, LocalDate date, LocalTime time) {
+    DaySchedule schedule = days.get(new DayKey(donorId, date));
+    if (schedule != null) {
+      schedule.book(slotOf(time), capacity);
+    }
+  }
+
+  // After a cancellation commits
+  public void release(Long donorId, LocalDate date, LocalTime time) {
+    DaySchedule schedule = days.get(new DayKey(donorId, date));
+    if (schedule != null) {
+      schedule.release(slotOf(time), capacity);
+    }
+  }
+
+  // The cached day disagreed with the table (a claim found the slot full); read it again next time
+  public void evict(Long donorId, LocalDate date) {
+    days.remove(new DayKey(donorId, date));
+  }
+
+  public boolean isAvailable(Long donorId, LocalDate date, LocalTime time) {
+    return isBookable(date) && schedule(donorId, date).isFree(slotOf(time));
+  }
+
+  // Start of the first free slot at or after the given time on that day, or null
+  public LocalTime nextFree(Long donorId, LocalDate date, LocalTime time) {
+    if (!isBookable(date)) {
+      return null;
+    }
+    int slot = schedule(donorId, date).nextFree(slotOf(time));
+    return slot >= 0 ? startOf(slot) : null;
+  }
+
+  // Days outside the horizon are listed without slots
+  public List<DaySlots> openSlots(Long donorId, LocalDate from, LocalDate to) {
+    Map<LocalDate, DaySchedule> loaded = null;
+    List<DaySlots> result = new ArrayList<>();
+    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+      List<Slot> slots = new ArrayList<>();
+      if (isBookable(date)) {
+        DaySchedule schedule = cached(new DayKey(donorId, date));
+        if (schedule == null) {
+          // One load for every day of the range that is not cached
+          if (loaded == null) {
+            loaded = loadRange(donorId, from, to);
+          }
+          schedule = loaded.get(date);
+          cache(new DayKey(donorId, date), schedule);
+        }
+        for (int slot = schedule.nextFree(0); slot >= 0; slot = schedule.nextFree(slot + 1)) {
+          slots.add(new Slot(startOf(slot), capacity - schedule.booked(slot)));
+        }
+      }
+      result.add(new DaySlots(date, slots));
+    }
+    return result;
+  }
+
+  // Drops past and expired days
+  @Scheduled(fixedDelay = 60000)
+  public void evictExpired() {
+    long now = System.currentTimeMillis();
+    LocalDate today = LocalDate.now();
+    days.entrySet().removeIf(entry ->
+      entry.getKey().date().isBefore(today) || entry.getValue().loadedAt + cacheMillis <= now
+    );
+  }
+
+  // Loaded outside the map so the queries do not run under its bin lock; a losing load is dropped
+  private DaySchedule schedule(Long donorId, LocalDate date) {
+    DayKey key = new DayKey(donorId, date);
+    DaySchedule schedule = cached(key);
+    if (schedule == null) {
+      schedule = loadRange(donorId, date, date).get(date);
+      cache(key, schedule);
+    }
+    return schedule;
+  }
+
+  private DaySchedule cached(DayKey key) {
+    DaySchedule schedule = days.get(key);
+    return schedule != null && schedule.loadedAt + cacheMillis > System.currentTimeMillis() ? schedule : null;
+  }
+
+  // Past the size bound, days are still served but not kept
+  private void cache(DayKey key, DaySchedule schedule) {
+    if (days.size() < cacheMaxDays || days.containsKey(key)) {
+      days.put(key, schedule);
+    }
+  }
+
+  // One donor lookup and one bookings query for the whole range
+  private Map<LocalDate, DaySchedule> loadRange(Long donorId, LocalDate from, LocalDate to) {
+    int slotCount = MINUTES_PER_DAY / slotMinutes;
+    long loadedAt = System.currentTimeMillis();
+    Map<LocalDate, DaySchedule> schedules = new HashMap<>();
+    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+      schedules.put(date, new DaySchedule(slotCount, loadedAt));
+    }
+    User donor = userRepository.findById(donorId).orElse(null);
+    int opens = 0;
+    int closes = MINUTES_PER_DAY;
+    if (donor != null && donor.getAvailabilityTimeFrom() != null && donor.getAvailabilityTimeTo() != null) {
+      opens = minuteOf(donor.getAvailabilityTimeFrom());
+      closes = minuteOf(donor.getAvailabilityTimeTo());
+    }
+    jdbcTemplate.query(
+      LOAD_SQL,
+      rs -> {
+        schedules
+          .get(rs.getDate("pickup_date").toLocalDate())
+          .add(slotOf(rs.getTime("slot_start").toLocalTime()), rs.getInt("booked"));
+      },
+      donorId,
+      Date.valueOf(from),
+      Date.valueOf(to)
+    );
+    for (DaySchedule schedule : schedules.values()) {
+      for (int slot = 0; slot < slotCount; slot++) {
+        if (inWindow(slot * slotMinutes, slotMinutes, opens, closes)) {
+          schedule.open(slot, capacity);
+        }
+      }
+    }
+    return schedules;
+  }
+
+  // Whether a slot of the given length starting at minute "start" lies inside the window
+  static boolean inWindow(int start, int slotMinutes, int opens, int closes) {
+    if (opens <= closes) {
+      return start >= opens && start + slotMinutes <= closes;
+    }
+    // Overnight: the evening part up to midnight, then the early hours up to closing
+    return start >= opens || start + slotMinutes <= closes;
+  }
+
+  private int slotOf(LocalTime time) {
+    return minuteOf(time) / slotMinutes;
+  }
+
+  private LocalTime startOf(int slot) {
+    return LocalTime.MIDNIGHT.plusMinutes((long) slot * slotMinutes);
+  }
+
+  private int minuteOf(LocalTime time) {
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  private record DayKey(Long donorId, LocalDate date) {}
+
+  static final class DaySchedule {
+
+    private final long loadedAt;
+    private final long[] free;
+    private final int[] booked;
+    // Slots outside the donor's window never become free
+    private final long[] inWindow;
+
+    DaySchedule(int slotCount, long loadedAt) {
+      this.loadedAt = loadedAt;
+      this.free = new long[(slotCount + 63) / 64];
+      this.inWindow = new long[free.length];
+      this.booked = new int[slotCount];
+    }
+
+    void add(int slot, int count) {
+      booked[slot] += count;
+    }
+
+    void open(int slot, int capacity) {
+      inWindow[slot >>> 6] |= 1L << slot;
+      if (booked[slot] < capacity) {
+        free[slot >>> 6] |= 1L << slot;
+      }
+    }
+
+    synchronized int booked(int slot) {
+      return booked[slot];
+    }
+
+    synchronized boolean isFree(int slot) {
+      return (free[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    boolean isInWindow(int slot) {
+      return (inWindow[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    synchronized boolean book(int slot, int capacity) {
+      if (!isFree(slot)) {
+        return false;
+      }
+      if (++booked[slot] >= capacity) {
+        free[slot >>> 6] &= ~(1L << slot);
+      }
+      return true;
+    }
+
+    synchronized void release(int slot, int capacity) {
+      if (booked[slot] == 0) {
+        return;
+      }
+      booked[slot]--;
+      if (booked[slot] < capacity && (inWindow[slot >>> 6] & (1L << slot)) != 0) {
+        free[slot >>> 6] |= 1L << slot;
+      }
+    }
+
+    synchronized int nextFree(int fromSlot) {
+      if (fromSlot >= booked.length) {
+        return -1;
+      }
+      int word = fromSlot >>> 6;
+      long bits = free[word] & (-1L << fromSlot);
+      while (true) {
+        if (bits != 0) {
+          return word * 64 + Long.numberOfTrailingZeros(bits);
+        }
+        if (++word == free.length) {
+          return -1;
+        }
+        bits = free[word];
+      }
+    }
+  }
+}
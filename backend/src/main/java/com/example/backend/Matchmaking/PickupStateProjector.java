@@ -0,0 +1,76 @@
+package com.example.backend.Matchmaking;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Keeps pickup_requests as the current state of open deliveries: CREATED
+ * inserts a line, CONFIRMED updates its status, CANCELLED and COMPLETED
+ * remove the delivery's lines.
+ */
+@Component
+public class PickupStateProjector extends PickupEventProjector {
+
+  public PickupStateProjector(
+    JdbcTemplate jdbcTemplate,
+    PlatformTransactionManager transactionManager
+  ) {
+    super(jdbcTemplate, transactionManager);
+  }
+
+  @Override
+  public String getName() {
+    return "pickup-state";
+  }
+
+  @Override
+  protected void apply(List<Event> events) {
+    for (List<Event> run : runsByType(events)) {
+      switch (run.get(0).type()) {
+        case PickupEvent.CREATED -> jdbcTemplate.batchUpdate(
+          "INSERT INTO pickup_requests (id, delivery_number, receiver_id, donor_id, food_item_id, " +
+          "pickup_date, pickup_time, quantity, status, created_at, updated_at) " +
+          "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?) ON CONFLICT (id) DO NOTHING",
+          run,
+          run.size(),
+          (ps, e) -> {
+            ps.setLong(1, e.pickupRequestId());
+            ps.setString(2, e.deliveryNumber());
+            ps.setLong(3, e.receiverId());
+            ps.setLong(4, e.donorId());
+            ps.setLong(5, e.foodItemId());
+            ps.setDate(6, Date.valueOf(e.pickupDate()));
+            ps.setTime(7, Time.valueOf(e.pickupTime()));
+            ps.setInt(8, e.quantity());
+            ps.setTimestamp(9, e.occurredAt());
+            ps.setTimestamp(10, e.occurredAt());
+          }
+        );
+        case PickupEvent.CONFIRMED -> jdbcTemplate.batchUpdate(
+          "UPDATE pickup_requests SET status = 'CONFIRMED', updated_at = ? WHERE delivery_number = ?",
+          run,
+          run.size(),
+          (ps, e) -> {
+            ps.setTimestamp(1, e.occurredAt());
+            ps.setString(2, e.deliveryNumber());
+          }
+        );
+        default -> jdbcTemplate.batchUpdate(
+          "DELETE FROM pickup_requests WHERE delivery_number = ?",
+          run,
+          run.size(),
+          (ps, e) -> ps.setString(1, e.deliveryNumber())
+        );
+      }
+    }
+  }
+
+  @Override
+  protected void reset() {
+    jdbcTemplate.update("DELETE FROM pickup_requests");
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.backend.Matchmaking;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReservationHoldController {
+
+  private final ReservationHoldService holdService;
+
+  public ReservationHoldController(ReservationHoldService holdService) {
+    this.holdService = holdService;
+  }
+
+  @PostMapping("/holds")
+  public ResponseEntity<?> placeHold(@RequestBody HoldRequestDTO request) {
+    if (request.getItemId() == null || request.getQuantity() == null) {
+      return ResponseEntity.badRequest().body("itemId and quantity are required");
+    }
+    ReservationHoldService.Hold hold = holdService.place(
+      request.getItemId(),
+      request.getQuantity()
+    );
+    if (hold == null) {
+      return ResponseEntity
+        .status(HttpStatus.CONFLICT)
+        .body("Requested quantity is not available for item " + request.getItemId());
+    }
+    return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+  }
+
+  @DeleteMapping("/holds/{holdId}")
+  public ResponseEntity<?> cancelHold(@PathVariable String holdId) {
+    if (!holdService.cancel(holdId)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.noContent().build();
+  }
+}
+
+/**
+ * Data Transfer Object for hold requests.
+ */
+class HoldRequestDTO {
+
+  private Long itemId;
+  private Integer quantity;
+
+  public Long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(Long itemId) {
+    this.itemId = itemId;
+  }
+
+  public Integer getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(Integer quantity) {
+    this.quantity = quantity;
+  }
+}
@@ -0,0 +1,214 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.FoodItemInventoryLedger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Short-lived quantity holds for the checkout flow.
+ *
+ * A hold takes quantity from the inventory ledger when the receiver starts
+ * checkout and gives it back if the pickup request is not created before the
+ * TTL runs out. Expiry uses a hashed timing wheel: each hold is dropped into
+ * the slot for its deadline and one scheduled tick per second expires the
+ * current slot, so there is no timer per hold and no database polling. The
+ * tick runs on its own thread rather than the shared @Scheduled one, so the
+ * outbox relay, projectors or nightly jobs cannot make holds expire late.
+ */
+@Service
+public class ReservationHoldService {
+
+  private static final int WHEEL_SIZE = 512;
+  private static final long TICK_MILLIS = 1000;
+
+  private final FoodItemInventoryLedger inventoryLedger;
+  private final long ttlMillis;
+  private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+  // Quantity of each item under live holds, kept alongside holds so lookups need no scan
+  private final ConcurrentHashMap<Long, Integer> heldByItem = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<Hold>[] wheel;
+  private final AtomicLong currentTick = new AtomicLong();
+  private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+    Thread.ofPlatform().name("hold-wheel").daemon().factory()
+  );
+  private static final Logger log = LoggerFactory.getLogger(ReservationHoldService.class);
+
+  @SuppressWarnings("unchecked")
+  public ReservationHoldService(
+    FoodItemInventoryLedger inventoryLedger,
+    @Value("${pickup-holds.ttl-seconds:120}") long ttlSeconds
+  ) {
+    this.inventoryLedger = inventoryLedger;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      wheel[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  // Returns null when the requested quantity is not available
+  public Hold place(Long itemId, int quantity) {
+    if (quantity <= 0 || !inventoryLedger.tryReserve(itemId, quantity, () -> heldQuantity(itemId))) {
+      return null;
+    }
+    Hold hold = new Hold(
+      UUID.randomUUID().toString(),
+      itemId,
+      quantity,
+      System.currentTimeMillis() + ttlMillis
+    );
+    holds.put(hold.getHoldId(), hold);
+    heldByItem.merge(itemId, quantity, Integer::sum);
+    long ticks = (ttlMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+    wheel[slot(currentTick.get() + ticks)].add(hold);
+    return hold;
+  }
+
+  // Turns a live hold into part of a pickup request; the quantity stays reserved
+  public boolean consume(String holdId, Long itemId, int quantity) {
+    Hold hold = holds.get(holdId);
+    if (
+      hold == null ||
+      !hold.getItemId().equals(itemId) ||
+      hold.getQuantity() != quantity ||
+      hold.getExpiresAt() < System.currentTimeMillis() ||
+      !hold.finish()
+    ) {
+      return false;
+    }
+    holds.remove(holdId);
+    // The pickup request now carries the quantity, so the stored count accounts for it
+    unhold(hold);
+    return true;
+  }
+
+  public boolean cancel(String holdId) {
+    Hold hold = holds.remove(holdId);
+    if (hold == null || !hold.finish()) {
+      return false;
+    }
+    unhold(hold);
+    inventoryLedger.release(hold.getItemId(), hold.getQuantity());
+    return true;
+  }
+
+  // Quantity of an item taken by live holds on this node; read when the ledger reloads a counter
+  public int heldQuantity(Long itemId) {
+    return heldByItem.getOrDefault(itemId, 0);
+  }
+
+  public int getActiveHolds() {
+    return holds.size();
+  }
+
+  @PostConstruct
+  public void start() {
+    // An exception would cancel the fixed-rate task, so it is logged and the wheel keeps turning
+    ticker.scheduleAtFixedRate(
+      () -> {
+        try {
+          tick();
+        } catch (RuntimeException e) {
+          log.error("Hold wheel tick failed", e);
+        }
+      },
+      TICK_MILLIS,
+      TICK_MILLIS,
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  @PreDestroy
+  public void stop() {
+    ticker.shutdownNow();
+  }
+
+  public void tick() {
+    long now = System.currentTimeMillis();
+    ConcurrentLinkedQueue<Hold> bucket = wheel[slot(currentTick.getAndIncrement())];
+    // Only look at what is in the bucket now; holds re-added below wait a full rotation
+    for (int i = bucket.size(); i > 0; i--) {
+      Hold hold = bucket.poll();
+      if (hold == null) {
+        break;
+      }
+      if (hold.isFinished()) {
+        continue;
+      }
+      if (hold.getExpiresAt() > now) {
+        bucket.add(hold);
+        continue;
+      }
+      if (hold.finish()) {
+        holds.remove(hold.getHoldId());
+        unhold(hold);
+        inventoryLedger.release(hold.getItemId(), hold.getQuantity());
+      }
+    }
+  }
+
+  // Called once per hold, by whichever of consume, cancel or expiry finished it
+  private void unhold(Hold hold) {
+    heldByItem.computeIfPresent(
+      hold.getItemId(),
+      (itemId, held) -> held > hold.getQuantity() ? held - hold.getQuantity() : null
+    );
+  }
+
+  private int slot(long tick) {
+    return (int) (tick % WHEEL_SIZE);
+  }
+
+  public static class Hold {
+
+    private final String holdId;
+    private final Long itemId;
+    private final int quantity;
+    private final long expiresAt;
+    // Consume, cancel and expiry race for the hold; only the first one wins
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    Hold(String holdId, Long itemId, int quantity, long expiresAt) {
+      this.holdId = holdId;
+      this.itemId = itemId;
+      this.quantity = quantity;
+      this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+      return holdId;
+    }
+
+    public Long getItemId() {
+      return itemId;
+    }
+
+    public int getQuantity() {
+      return quantity;
+    }
+
+    public long getExpiresAt() {
+      return expiresAt;
+    }
+
+    boolean finish() {
+      return finished.compareAndSet(false, true);
+    }
+
+    boolean isFinished() {
+      return finished.get();
+    }
+  }
+}
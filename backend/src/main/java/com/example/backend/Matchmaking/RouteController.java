@@ -0,0 +1,185 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.FoodItemRepository;
+import com.example.backend.foodItems.FoodItems;
+import com.example.backend.users.User;
+import com.example.backend.users.UserRepository;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173")
+public class RouteController {
+
+  private static final int MAX_STOPS = 500;
+
+  private final PickupRequestRepository pickupRequestRepository;
+  private final FoodItemRepository foodItemRepository;
+  private final UserRepository userRepository;
+  private final RoutePlanner routePlanner;
+
+  public RouteController(
+    PickupRequestRepository pickupRequestRepository,
+    FoodItemRepository foodItemRepository,
+    UserRepository userRepository,
+    RoutePlanner routePlanner
+  ) {
+    this.pickupRequestRepository = pickupRequestRepository;
+    this.foodItemRepository = foodItemRepository;
+    this.userRepository = userRepository;
+    this.routePlanner = routePlanner;
+  }
+
+  // One stop per delivery number, at its donor's pickup location and within the donor's availability;
+  // the driver gets a single ordered route, with stops that cannot be reached in time marked late
+  @PostMapping("/routes/plan")
+  public ResponseEntity<?> planRoute(@RequestBody RoutePlanRequestDTO request) {
+    if (
+      request.getStartLat() == null ||
+      request.getStartLon() == null ||
+      request.getDeliveryNumbers() == null ||
+      request.getDeliveryNumbers().isEmpty()
+    ) {
+      return ResponseEntity
+        .badRequest()
+        .body("startLat, startLon and deliveryNumbers are required");
+    }
+    if (request.getDeliveryNumbers().size() > MAX_STOPS) {
+      return ResponseEntity.badRequest().body("At most " + MAX_STOPS + " stops per plan");
+    }
+    LocalTime start;
+    try {
+      start = request.getStartTime() != null ? LocalTime.parse(request.getStartTime()) : LocalTime.now();
+    } catch (DateTimeParseException e) {
+      return ResponseEntity.badRequest().body("startTime must be a time of day such as 08:30");
+    }
+
+    Map<String, PickupRequest> firstLine = new LinkedHashMap<>();
+    for (PickupRequest pickup : pickupRequestRepository.findByDeliveryNumberIn(
+      request.getDeliveryNumbers()
+    )) {
+      firstLine.putIfAbsent(pickup.getDeliveryNumber(), pickup);
+    }
+    Map<Long, FoodItems> items = foodItemRepository
+      .findAllById(firstLine.values().stream().map(PickupRequest::getFoodItemId).toList())
+      .stream()
+      .collect(Collectors.toMap(FoodItems::getId, Function.identity()));
+    Map<Long, User> donors = userRepository
+      .findAllById(firstLine.values().stream().map(PickupRequest::getDonorId).toList())
+      .stream()
+      .collect(Collectors.toMap(User::getId, Function.identity()));
+
+    List<RoutePlanner.Stop> stops = new ArrayList<>();
+    List<String> unplannable = new ArrayList<>();
+    for (String deliveryNumber : new LinkedHashSet<>(request.getDeliveryNumbers())) {
+      PickupRequest pickup = firstLine.get(deliveryNumber);
+      FoodItems item = pickup != null ? items.get(pickup.getFoodItemId()) : null;
+      if (
+        item == null ||
+        item.getPickupLatitude() == null ||
+        item.getPickupLongitude() == null
+      ) {
+        unplannable.add(deliveryNumber);
+        continue;
+      }
+      User donor = donors.get(pickup.getDonorId());
+      stops.add(
+        new RoutePlanner.Stop(
+          deliveryNumber,
+          item.getPickupLatitude().doubleValue(),
+          item.getPickupLongitude().doubleValue(),
+          donor != null ? minuteOfDay(donor.getAvailabilityTimeFrom()) : null,
+          donor != null ? minuteOfDay(donor.getAvailabilityTimeTo()) : null
+        )
+      );
+    }
+
+    RoutePlanner.Route route = routePlanner.plan(
+      request.getStartLat(),
+      request.getStartLon(),
+      minuteOfDay(start),
+      stops
+    );
+    return ResponseEntity.ok(new RoutePlanResponse(route, unplannable));
+  }
+
+  private Integer minuteOfDay(LocalTime time) {
+    return time != null ? time.getHour() * 60 + time.getMinute() : null;
+  }
+}
+
+/**
+ * Data Transfer Object for route planning requests.
+ */
+class RoutePlanRequestDTO {
+
+  private Double startLat;
+  private Double startLon;
+  // HH:mm; defaults to now
+  private String startTime;
+  private List<String> deliveryNumbers;
+
+  public Double getStartLat() {
+    return startLat;
+  }
+
+  public void setStartLat(Double startLat) {
+    this.startLat = startLat;
+  }
+
+  public Double getStartLon() {
+    return startLon;
+  }
+
+  public void setStartLon(Double startLon) {
+    this.startLon = startLon;
+  }
+
+  public String getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(String startTime) {
+    this.startTime = startTime;
+  }
+
+  public List<String> getDeliveryNumbers() {
+    return deliveryNumbers;
+  }
+
+  public void setDeliveryNumbers(List<String> deliveryNumbers) {
+    this.deliveryNumbers = deliveryNumbers;
+  }
+}
+
+/**
+ * Response object for route plans.
+ */
+class RoutePlanResponse {
+
+  private RoutePlanner.Route route;
+  private List<String> unplannable;
+
+  public RoutePlanResponse(RoutePlanner.Route route, List<String> unplannable) {
+    this.route = route;
+    this.unplannable = unplannable;
+  }
+
+  public RoutePlanner.Route getRoute() {
+    return route;
+  }
+
+  public List<String> getUnplannable() {
+    return unplannable;
+  }
+}
@@ -0,0 +1,543 @@
+package com.example.backend.Matchmaking;
+
+import com.example.backend.foodItems.GeoUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders pickup stops for one volunteer driver (an open traveling salesman
+ * tour with time windows).
+ *
+ * The route starts at the driver's position and ends at the last stop. An
+ * initial order comes from cheapest insertion; it is then improved with
+ * 2-opt and or-opt moves until no move lowers its cost. Candidate moves are
+ * scored in parallel against a distance matrix computed once per plan. Cost
+ * is distance plus a heavy penalty per minute of arriving after a stop's
+ * window, so late arrivals are only kept when they cannot be avoided; they
+ * are reported on their visits rather than split off into another route.
+ *
+ * Only moves that add an edge to one of a stop's nearest neighbours are
+ * tried. A move is scored incrementally: distance from the edges it swaps,
+ * and arrivals from the first stop it changes; wherever the later arrivals
+ * just move by the same number of minutes their lateness comes from range
+ * sums over the current route instead of a walk, and scoring gives up once
+ * the cost cannot beat the best so far.
+ *
+ * A window whose end is earlier than its start runs overnight, as donor
+ * availability does for pickup slots.
+ */
+@Component
+public class RoutePlanner {
+
+  private static final double LATE_PENALTY_PER_MINUTE = 1000;
+  private static final double EPSILON = 1e-9;
+  private static final int MAX_SEGMENT = 3;
+  // Every pass applies one improving move; the cap bounds planning time on pathological inputs
+  private static final int MAX_PASSES = 2000;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final int NEIGHBOURS = 16;
+
+  private final double speedKmh;
+  private final int serviceMinutes;
+
+  public RoutePlanner(
+    @Value("${routes.speed-kmh:25}") double speedKmh,
+    @Value("${routes.service-minutes:5}") int serviceMinutes
+  ) {
+    this.speedKmh = speedKmh;
+    this.serviceMinutes = serviceMinutes;
+  }
+
+  /** Window bounds are minutes after midnight; null means open. */
+  public record Stop(String id, double lat, double lon, Integer windowFrom, Integer windowTo) {}
+
+  public record Visit(Stop stop, double arrivalMinute, boolean late) {}
+
+  public record Route(List<Visit> visits, double distanceKm) {}
+
+  public Route plan(double startLat, double startLon, int startMinute, List<Stop> stops) {
+    if (stops.isEmpty()) {
+      return new Route(List.of(), 0);
+    }
+    Plan plan = new Plan(startLat, startLon, startMinute, stops);
+    int[] r = plan.improve(plan.insertion());
+    return plan.toRoute(r);
+  }
+
+  private final class Plan {
+
+    private final List<Stop> stops;
+    private final int startMinute;
+    // Node 0 is the driver's start, node i is stops.get(i - 1)
+    private final double[][] distance;
+    // Window bounds per node in minutes from the start day's midnight; infinite when open
+    private final double[] opens;
+    private final double[] closes;
+    // near[a][b]: b is one of a's NEIGHBOURS closest nodes; moves are only tried when they add such an edge
+    private final boolean[][] near;
+
+    private Plan(double startLat, double startLon, int startMinute, List<Stop> stops) {
+      this.stops = stops;
+      this.startMinute = startMinute;
+      int n = stops.size() + 1;
+      double[] lats = new double[n];
+      double[] lons = new double[n];
+      lats[0] = startLat;
+      lons[0] = startLon;
+      opens = new double[n];
+      closes = new double[n];
+      for (int i = 1; i < n; i++) {
+        Stop stop = stops.get(i - 1);
+        lats[i] = stop.lat();
+        lons[i] = stop.lon();
+        opens[i] = stop.windowFrom() != null ? stop.windowFrom() : Double.NEGATIVE_INFINITY;
+        closes[i] = stop.windowTo() != null ? stop.windowTo() : Double.POSITIVE_INFINITY;
+        if (stop.windowFrom() != null && stop.windowTo() != null && stop.windowTo() < stop.windowFrom()) {
+          // Overnight: starting before it closes, the window opened the evening before; otherwise it
+          // closes the next morning
+          if (startMinute < stop.windowTo()) {
+            opens[i] -= MINUTES_PER_DAY;
+          } else {
+            closes[i] += MINUTES_PER_DAY;
+          }
+        }
+      }
+      distance = new double[n][n];
+      IntStream
+        .range(0, n)
+        .parallel()
+        .forEach(i -> {
+          for (int j = 0; j < n; j++) {
+            distance[i][j] = i == j ? 0 : GeoUtils.distanceKm(lats[i], lons[i], lats[j], lons[j]);
+          }
+        });
+      near = new boolean[n][n];
+      IntStream
+        .range(0, n)
+        .parallel()
+        .forEach(i -> {
+          IntStream
+            .range(1, n)
+            .filter(j -> j != i)
+            .boxed()
+            .sorted(Comparator.comparingDouble(j -> distance[i][j]))
+            .limit(NEIGHBOURS)
+            .forEach(j -> near[i][j] = true);
+        });
+    }
+
+    // Cheapest insertion, tightest windows first: each stop goes where it adds the least cost
+    private int[] insertion() {
+      List<Integer> order = new ArrayList<>();
+      for (int i = 1; i <= stops.size(); i++) {
+        order.add(i);
+      }
+      order.sort(Comparator.comparingDouble((Integer node) -> closes[node]));
+
+      int[] route = new int[0];
+      for (int node : order) {
+        Schedule schedule = new Schedule(route);
+        int[] current = route;
+        double[] costs = new double[current.length + 1];
+        IntStream
+          .rangeClosed(0, current.length)
+          .parallel()
+          .forEach(p -> {
+            int before = p == 0 ? 0 : current[p - 1];
+            double km = schedule.km() + distance[before][node] +
+              (p < current.length ? distance[node][current[p]] - distance[before][current[p]] : 0);
+            costs[p] = schedule.score(k -> node, current.length + 1, p, p + 1, km, Double.POSITIVE_INFINITY);
+          });
+        int best = 0;
+        for (int p = 1; p < costs.length; p++) {
+          if (costs[p] < costs[best]) {
+            best = p;
+          }
+        }
+        route = new int[current.length + 1];
+        System.arraycopy(current, 0, route, 0, best);
+        route[best] = node;
+        System.arraycopy(current, best, route, best + 1, current.length - best);
+      }
+      return route;
+    }
+
+    // Best-improvement passes until no move lowers the cost, or MAX_PASSES
+    private int[] improve(int[] route) {
+      for (int pass = 0; pass < MAX_PASSES; pass++) {
+        Schedule schedule = new Schedule(route);
+        Candidate best = null;
+        for (Candidate candidate : new Candidate[] { bestTwoOpt(schedule), bestOrOpt(schedule) }) {
+          if (candidate != null && (best == null || candidate.cost() < best.cost())) {
+            best = candidate;
+          }
+        }
+        if (best == null) {
+          return route;
+        }
+        route = best.route();
+      }
+      return route;
+    }
+
+    // Reverse route[i..j]; scored for every i in parallel
+    private Candidate bestTwoOpt(Schedule schedule) {
+      int[] route = schedule.route;
+      int n = route.length;
+      return IntStream
+        .range(0, n - 1)
+        .parallel()
+        .mapToObj(i -> {
+          int before = i == 0 ? 0 : route[i - 1];
+          int bestJ = -1;
+          double bestCost = schedule.cost - EPSILON;
+          for (int j = i + 1; j < n; j++) {
+            double after = j + 1 < n
+              ? distance[route[j]][route[j + 1]] - distance[route[i]][route[j + 1]]
+              : 0;
+            if (!near[before][route[j]] && !(j + 1 < n && near[route[i]][route[j + 1]])) {
+              continue;
+            }
+            double km = schedule.km() + distance[before][route[j]] - distance[before][route[i]] - after;
+            int last = j;
+            double cost = schedule.score(k -> route[i + last - k], n, i, j + 1, km, bestCost);
+            if (cost < bestCost) {
+              bestJ = j;
+              bestCost = cost;
+            }
+          }
+          if (bestJ < 0) {
+            return null;
+          }
+          int[] candidate = route.clone();
+          for (int a = i, b = bestJ; a < b; a++, b--) {
+            int swap = candidate[a];
+            candidate[a] = candidate[b];
+            candidate[b] = swap;
+          }
+          return new Candidate(candidate, bestCost);
+        })
+        .filter(c -> c != null)
+        .min(Comparator.comparingDouble(Candidate::cost))
+        .orElse(null);
+    }
+
+    // Move a segment of up to MAX_SEGMENT stops to another position; scored in parallel per segment start
+    private Candidate bestOrOpt(Schedule schedule) {
+      int[] route = schedule.route;
+      int n = route.length;
+      return IntStream
+        .range(0, n)
+        .parallel()
+        .mapToObj(i -> {
+          int bestLength = 0;
+          int bestP = -1;
+          double bestCost = schedule.cost - EPSILON;
+          for (int length = 1; length <= MAX_SEGMENT && i + length <= n; length++) {
+            int first = route[i];
+            int last = route[i + length - 1];
+            int before = i == 0 ? 0 : route[i - 1];
+            int after = i + length < n ? route[i + length] : -1;
+            double removed = distance[before][first] +
+              (after >= 0 ? distance[last][after] - distance[before][after] : 0);
+            // p is a position in the route without the segment
+            for (int p = 0; p <= n - length; p++) {
+              if (p == i) {
+                continue;
+              }
+              int x = p == 0 ? 0 : p <= i ? route[p - 1] : route[p + length - 1];
+              int y = p == n - length ? -1 : p < i ? route[p] : route[p + length];
+              if (!near[x][first] && !(y >= 0 && near[last][y])) {
+                continue;
+              }
+              double added = distance[x][first] +
+                (y >= 0 ? distance[last][y] - distance[x][y] : 0);
+              double cost = orOptCost(schedule, i, length, p, schedule.km() + added - removed, bestCost);
+              if (cost < bestCost) {
+                bestLength = length;
+                bestP = p;
+                bestCost = cost;
+              }
+            }
+          }
+          if (bestP < 0) {
+            return null;
+          }
+          int[] rest = new int[n - bestLength];
+          System.arraycopy(route, 0, rest, 0, i);
+          System.arraycopy(route, i + bestLength, rest, i, n - i - bestLength);
+          int[] candidate = new int[n];
+          System.arraycopy(rest, 0, candidate, 0, bestP);
+          System.arraycopy(route, i, candidate, bestP, bestLength);
+          System.arraycopy(rest, bestP, candidate, bestP + bestLength, rest.length - bestP);
+          return new Candidate(candidate, bestCost);
+        })
+        .filter(c -> c != null)
+        .min(Comparator.comparingDouble(Candidate::cost))
+        .orElse(null);
+    }
+
+    /**
+     * Cost of moving route[i..i+length) to position p of the rest, or
+     * infinity if it is not below bound. The stops the segment jumps over keep
+     * their order, so their lateness comes from the current schedule; the
+     * route is only walked when a shift does not carry through unchanged.
+     */
+    private double orOptCost(Schedule schedule, int i, int length, int p, double km, double bound) {
+      int[] route = schedule.route;
+      int from = Math.min(i, p);
+      double lateness = from == 0 ? 0 : schedule.late[from - 1];
+      double time = from == 0 ? startMinute : schedule.arrival[from - 1] + serviceMinutes;
+      int previous = from == 0 ? 0 : route[from - 1];
+      boolean exact = true;
+      // The run of stops jumped over, and the first stop after everything that moved
+      int a = p < i ? p : i + length;
+      int b = p < i ? i : p + length;
+      int tail = p < i ? i + length : p + length;
+      if (p < i) {
+        for (int k = i; k < i + length; k++) {
+          time = arrive(previous, route[k], time);
+          lateness += Math.max(time - closes[route[k]], 0);
+          time += serviceMinutes;
+          previous = route[k];
+        }
+      }
+      double shift = arrive(previous, route[a], time) - schedule.arrival[a];
+      double run = schedule.linearLateness(a, b, shift);
+      if (Double.isNaN(run)) {
+        exact = false;
+        run = schedule.lateLowerBound(a, b, shift);
+        shift = Math.min(shift, 0);
+      }
+      lateness += run;
+      time = schedule.arrival[b - 1] + shift + serviceMinutes;
+      previous = route[b - 1];
+      if (p > i) {
+        for (int k = i; k < i + length; k++) {
+          time = arrive(previous, route[k], time);
+          lateness += Math.max(time - closes[route[k]], 0);
+          time += serviceMinutes;
+          previous = route[k];
+        }
+      }
+      if (tail < route.length) {
+        shift = arrive(previous, route[tail], time) - schedule.arrival[tail];
+        double rest = schedule.linearLateness(tail, route.length, shift);
+        if (Double.isNaN(rest)) {
+          exact = false;
+          rest = schedule.lateLowerBound(tail, route.length, shift);
+        }
+        lateness += rest;
+      }
+      double cost = km + LATE_PENALTY_PER_MINUTE * lateness;
+      if (exact || cost >= bound) {
+        return cost < bound ? cost : Double.POSITIVE_INFINITY;
+      }
+      return p < i
+        ? schedule.score(k -> k < p + length ? route[i + k - p] : route[k - length], route.length, p, i + length, km, bound)
+        : schedule.score(k -> k < p ? route[k + length] : route[i + k - p], route.length, i, p + length, km, bound);
+    }
+
+    // Travel, then wait for the window to open
+    private double arrive(int from, int to, double time) {
+      double arrival = time + distance[from][to] / speedKmh * 60;
+      return Math.max(arrival, opens[to]);
+    }
+
+    private Route toRoute(int[] route) {
+      List<Visit> visits = new ArrayList<>();
+      double km = 0;
+      double time = startMinute;
+      int previous = 0;
+      for (int node : route) {
+        km += distance[previous][node];
+        time = arrive(previous, node, time);
+        visits.add(new Visit(stops.get(node - 1), time, time > closes[node]));
+        time += serviceMinutes;
+        previous = node;
+      }
+      return new Route(visits, km);
+    }
+
+    /**
+     * Arrival times and running totals along one route, so a move is scored
+     * from the first position it changes rather than from the start.
+     */
+    private final class Schedule {
+
+      private final int[] route;
+      // Per position: distance travelled to reach it, arrival after waiting, lateness so far
+      private final double[] km;
+      private final double[] arrival;
+      private final double[] late;
+      // Per position: how many stops from it to the end are late, and how many before a stop that waited
+      private final int[] lateAfter;
+      private final int[] lateBeforeWait;
+      // Range minimums per position: minutes between arriving and the window opening (zero or less
+      // when the driver waited), minutes left before the window closes on stops that are on time, and
+      // minutes late on stops that are late
+      private final double[][] openSlack;
+      private final double[][] closeSlack;
+      private final double[][] lateBy;
+      private final double cost;
+
+      private Schedule(int[] route) {
+        this.route = route;
+        int n = route.length;
+        km = new double[n];
+        arrival = new double[n];
+        late = new double[n];
+        double[] beforeOpen = new double[n];
+        double[] beforeClose = new double[n];
+        double[] afterClose = new double[n];
+        double travelled = 0;
+        double lateness = 0;
+        double time = startMinute;
+        int previous = 0;
+        for (int k = 0; k < n; k++) {
+          int node = route[k];
+          travelled += distance[previous][node];
+          double travel = time + distance[previous][node] / speedKmh * 60;
+          time = Math.max(travel, opens[node]);
+          lateness += Math.max(time - closes[node], 0);
+          km[k] = travelled;
+          arrival[k] = time;
+          late[k] = lateness;
+          beforeOpen[k] = travel - opens[node];
+          beforeClose[k] = time > closes[node] ? Double.POSITIVE_INFINITY : closes[node] - time;
+          afterClose[k] = time > closes[node] ? time - closes[node] : Double.POSITIVE_INFINITY;
+          time += serviceMinutes;
+          previous = node;
+        }
+        lateAfter = new int[n + 1];
+        lateBeforeWait = new int[n + 1];
+        for (int k = n - 1; k >= 0; k--) {
+          int isLate = arrival[k] > closes[route[k]] ? 1 : 0;
+          lateAfter[k] = lateAfter[k + 1] + isLate;
+          boolean nextWaited = k + 1 < n && beforeOpen[k + 1] <= 0;
+          lateBeforeWait[k] = isLate + (nextWaited ? 0 : lateBeforeWait[k + 1]);
+        }
+        openSlack = minTable(beforeOpen);
+        closeSlack = minTable(beforeClose);
+        lateBy = minTable(afterClose);
+        cost = travelled + LATE_PENALTY_PER_MINUTE * lateness;
+      }
+
+      private double km() {
+        return route.length == 0 ? 0 : km[route.length - 1];
+      }
+
+      /**
+       * Cost of a route of n stops that matches this one before position
+       * from and, shifted by n minus this route's length, from position until
+       * on; nodeAt gives the stops in between. newKm is its total distance.
+       * Returns infinity as soon as the cost cannot get below bound. The
+       * unchanged tail is only walked while its arrivals do not simply move
+       * by the same number of minutes.
+       */
+      private double score(IntUnaryOperator nodeAt, int n, int from, int until, double newKm, double bound) {
+        double allowed = (bound - newKm) / LATE_PENALTY_PER_MINUTE;
+        double lateness = from == 0 ? 0 : late[from - 1];
+        if (lateness >= allowed) {
+          return Double.POSITIVE_INFINITY;
+        }
+        int shift = route.length - n;
+        double time = from == 0 ? startMinute : arrival[from - 1] + serviceMinutes;
+        int previous = from == 0 ? 0 : route[from - 1];
+        if (until < n) {
+          // Distance and service alone; waiting only makes the tail later than this
+          double toTail = newKm - (km[route.length - 1] - km[until + shift]) - (from == 0 ? 0 : km[from - 1]);
+          double earliest = time + toTail / speedKmh * 60 + (until - from) * serviceMinutes;
+          int tail = until + shift;
+          double moved = Math.max(earliest, opens[route[tail]]) - arrival[tail];
+          if (lateness + lateLowerBound(tail, route.length, moved) >= allowed) {
+            return Double.POSITIVE_INFINITY;
+          }
+        }
+        for (int k = from; k < n; k++) {
+          int node = k < until ? nodeAt.applyAsInt(k) : route[k + shift];
+          time = arrive(previous, node, time);
+          if (k >= until) {
+            double moved = time - arrival[k + shift];
+            double rest = linearLateness(k + shift, route.length, moved);
+            if (!Double.isNaN(rest)) {
+              lateness += rest;
+              return lateness < allowed ? newKm + LATE_PENALTY_PER_MINUTE * lateness : Double.POSITIVE_INFINITY;
+            }
+            if (lateness + lateLowerBound(k + shift, route.length, moved) >= allowed) {
+              return Double.POSITIVE_INFINITY;
+            }
+          }
+          lateness += Math.max(time - closes[node], 0);
+          if (lateness >= allowed) {
+            return Double.POSITIVE_INFINITY;
+          }
+          time += serviceMinutes;
+          previous = node;
+        }
+        return newKm + LATE_PENALTY_PER_MINUTE * lateness;
+      }
+
+      /**
+       * Lateness of positions a to b - 1 when a is reached shift minutes
+       * later than now (earlier when negative), if every arrival after it
+       * moves by the same amount: nobody waits for a window to open and no
+       * stop crosses the end of its window. NaN otherwise.
+       */
+      private double linearLateness(int a, int b, double shift) {
+        double rest = late[b - 1] - (a == 0 ? 0 : late[a - 1]);
+        if (Math.abs(shift) < EPSILON) {
+          return rest;
+        }
+        double waitFree = rangeMin(openSlack, a + 1, b);
+        boolean linear = shift > 0
+          ? waitFree > 0 && shift <= rangeMin(closeSlack, a, b)
+          : -shift <= waitFree && -shift <= rangeMin(lateBy, a, b);
+        return linear ? rest + shift * (lateAfter[a] - lateAfter[b]) : Double.NaN;
+      }
+
+      /**
+       * Lower bound on the same: arriving later adds the shift for every late
+       * stop up to the next one that waited, and arriving earlier takes at
+       * most the shift off each late stop.
+       */
+      private double lateLowerBound(int a, int b, double shift) {
+        double rest = late[b - 1] - (a == 0 ? 0 : late[a - 1]);
+        return shift < 0
+          ? Math.max(rest + shift * (lateAfter[a] - lateAfter[b]), 0)
+          : rest + shift * Math.max(lateBeforeWait[a] - lateAfter[b], 0);
+      }
+    }
+  }
+
+  // Sparse table: row l holds the minimum of each run of 2^l values
+  private static double[][] minTable(double[] values) {
+    int levels = values.length == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(values.length);
+    double[][] table = new double[levels][];
+    table[0] = values;
+    for (int l = 1; l < levels; l++) {
+      int width = 1 << (l - 1);
+      table[l] = new double[values.length - (1 << l) + 1];
+      for (int i = 0; i < table[l].length; i++) {
+        table[l][i] = Math.min(table[l - 1][i], table[l - 1][i + width]);
+      }
+    }
+    return table;
+  }
+
+  // Minimum over positions from to to - 1; infinity when empty
+  private static double rangeMin(double[][] table, int from, int to) {
+    if (from >= to) {
+      return Double.POSITIVE_INFINITY;
+    }
+    int l = 31 - Integer.numberOfLeadingZeros(to - from);
+    return Math.min(table[l][from], table[l][to - (1 << l)]);
+  }
+
+  private record Candidate(int[] route, double cost) {}
+}
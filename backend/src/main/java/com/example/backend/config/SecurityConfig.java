@@ -1,5 +1,7 @@
 package com.example.backend.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,9 +39,14 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of streamed responses (SSE feed, NDJSON stream); the request
+                // was authorized when it started and the JWT is not re-read here
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/items/index").permitAll()
+                .requestMatchers("/actuator/health/**").permitAll()
 //                .requestMatchers("/api/items").permitAll()
                 
                 // Role-specific endpoints
@@ -49,7 +56,9 @@ public class SecurityConfig {
                 
                 // Specific permissions
                 .requestMatchers("/api/add-items").hasRole("DONOR")
+                .requestMatchers("/api/items/import/**").hasRole("DONOR")
                 .requestMatchers("/api/items/nearby").hasRole("RECEIVER")
+                .requestMatchers("/api/items/feed").hasRole("RECEIVER")
                 
                 // All other requests need authentication
                 .anyRequest().authenticated()
@@ -1,31 +1,307 @@
 package com.example.backend.foodItems;
 
-import org.springframework.mail.SimpleMailMessage;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-@Service                                                            
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Outgoing email pipeline.
+ *
+ * Callers only enqueue; worker threads drain the bounded queue in batches and
+ * hand each batch to {@link JavaMailSender#send(MimeMessage...)}, which sends
+ * it over a single SMTP connection. Failed messages are retried with
+ * exponential backoff. Messages that keep failing, are rejected by the server
+ * or do not fit in the queue are dead-lettered: logged, counted and kept in a
+ * bounded in-memory list that admins can inspect and requeue.
+ */
+@Service
 public class EmailNotificationService {
 
+    private static final String FROM = "no-reply@foodwaste.com";
+    private static final int MAX_DEAD_LETTERS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 300000;
+    private static final long POLL_MILLIS = 500;
+
     private final JavaMailSender mailSender;
+    private final BlockingQueue<OutboundEmail> queue;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final ConcurrentLinkedDeque<DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("email-retry").daemon().factory());
+    // Platform threads: JavaMail blocks on sockets inside synchronized methods, which pins virtual threads
+    private final ExecutorService workerPool;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer deliveryLatency;
+    private final Timer batchTimer;
+    private volatile boolean running = false;
+    private static final Logger log = LoggerFactory.getLogger(EmailNotificationService.class);
 
-    public EmailNotificationService(JavaMailSender mailSender) {
+    public EmailNotificationService(
+            JavaMailSender mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.email.queue-capacity:10000}") int queueCapacity,
+            @Value("${notifications.email.workers:2}") int workers,
+            @Value("${notifications.email.batch-size:50}") int batchSize,
+            @Value("${notifications.email.max-attempts:5}") int maxAttempts,
+            @Value("${notifications.email.retry-backoff-ms:2000}") long retryBackoffMillis) {
         this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.workerPool = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("email-worker-", 0).daemon().factory());
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.sentCounter = meterRegistry.counter("notifications.email.sent");
+        this.retriedCounter = meterRegistry.counter("notifications.email.retried");
+        this.deadLetteredCounter = meterRegistry.counter("notifications.email.dead_lettered");
+        this.deliveryLatency = meterRegistry.timer("notifications.email.latency");
+        this.batchTimer = meterRegistry.timer("notifications.email.batch.duration");
+        meterRegistry.gauge("notifications.email.queue.depth", queue, BlockingQueue::size);
+        meterRegistry.gauge("notifications.email.retry.pending", pendingRetries);
+        meterRegistry.gauge("notifications.email.dead_letters", deadLetters, ConcurrentLinkedDeque::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::work);
+        }
+    }
+
+    // Workers finish what is queued; scheduled retries are given up
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        List<Runnable> abandoned = retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            workerPool.shutdownNow();
+        }
+        if (!abandoned.isEmpty() || !queue.isEmpty()) {
+            log.warn("Email pipeline stopped with {} queued and {} scheduled retries undelivered",
+                    queue.size(), abandoned.size());
+        }
     }
 
     /**
-     * Sends a plain‑text email.
+     * Queues a plain-text email. Returns false when the queue is full; the
+     * message is then dead-lettered instead of blocking the caller.
      */
-    public void sendSimpleMessage(String to,
-                                  String subject,
-                                  String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        // Optionally set from:
-        message.setFrom("no-reply@foodwaste.com");
-        mailSender.send(message);
+    public boolean sendSimpleMessage(String to,
+                                     String subject,
+                                     String text) {
+        OutboundEmail email = new OutboundEmail(to, subject, text, System.nanoTime());
+        if (!queue.offer(email)) {
+            deadLetter(email, "queue full");
+            return false;
+        }
+        return true;
     }
-}
 
+    public List<DeadLetter> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+
+    // Moves dead letters back onto the queue with a fresh attempt count; returns how many were queued
+    public int requeueDeadLetters() {
+        int requeued = 0;
+        Iterator<DeadLetter> it = deadLetters.iterator();
+        while (it.hasNext()) {
+            DeadLetter letter = it.next();
+            if (!queue.offer(new OutboundEmail(letter.to(), letter.subject(), letter.text(), System.nanoTime()))) {
+                break;
+            }
+            it.remove();
+            requeued++;
+        }
+        return requeued;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void work() {
+        List<OutboundEmail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboundEmail first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchTimer.record(() -> deliver(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email worker failed on a batch of {} messages", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<OutboundEmail> batch) {
+        List<OutboundEmail> sendable = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboundEmail email : batch) {
+            try {
+                messages.add(toMimeMessage(email));
+                sendable.add(email);
+            } catch (MessagingException e) {
+                deadLetter(email, "invalid message: " + e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            batchFailure = e;
+        } catch (MailException e) {
+            // Authentication or connection failure: nothing in the batch went out
+            batchFailure = e;
+        }
+
+        for (int i = 0; i < sendable.size(); i++) {
+            OutboundEmail email = sendable.get(i);
+            Exception failure = batchFailure == null ? null
+                    : failed.isEmpty() ? batchFailure : failed.get(messages.get(i));
+            if (failure == null) {
+                sentCounter.increment();
+                deliveryLatency.record(System.nanoTime() - email.enqueuedAt, TimeUnit.NANOSECONDS);
+            } else {
+                retryOrDeadLetter(email, failure);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(FROM);
+        helper.setTo(email.to);
+        helper.setSubject(email.subject);
+        helper.setText(email.text);
+        helper.setSentDate(new Date());
+        return message;
+    }
+
+    private void retryOrDeadLetter(OutboundEmail email, Exception failure) {
+        email.attempts++;
+        if (isPermanent(failure)) {
+            deadLetter(email, "rejected: " + failure.getMessage());
+            return;
+        }
+        if (email.attempts >= maxAttempts) {
+            deadLetter(email, "gave up after " + email.attempts + " attempts: " + failure.getMessage());
+            return;
+        }
+        retriedCounter.increment();
+        scheduleRetry(email, backoff(email.attempts));
+    }
+
+    private void scheduleRetry(OutboundEmail email, long delayMillis) {
+        pendingRetries.incrementAndGet();
+        try {
+            retryScheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                if (!queue.offer(email)) {
+                    // Still backed up: wait again without spending an attempt
+                    scheduleRetry(email, retryBackoffMillis);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            pendingRetries.decrementAndGet();
+            deadLetter(email, "shutting down");
+        }
+    }
+
+    // Doubles per attempt with +/-20% jitter so a recovering server is not hit by all retries at once
+    private long backoff(int attempts) {
+        long base = Math.min(retryBackoffMillis << Math.min(attempts - 1, 20), MAX_BACKOFF_MILLIS);
+        return (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    // The server refused the recipient; retrying will not change that
+    private static boolean isPermanent(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SendFailedException sfe
+                    && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void deadLetter(OutboundEmail email, String reason) {
+        deadLetteredCounter.increment();
+        log.warn("Dead-lettered email to {} ({}): {}", email.to, email.subject, reason);
+        deadLetters.addLast(new DeadLetter(email.to, email.subject, email.text, email.attempts, reason, new Date()));
+        while (deadLetters.size() > MAX_DEAD_LETTERS) {
+            deadLetters.pollFirst();
+        }
+    }
+
+    public record DeadLetter(String to, String subject, String text, int attempts, String reason, Date failedAt) {}
+
+    private static final class OutboundEmail {
+        private final String to;
+        private final String subject;
+        private final String text;
+        private final long enqueuedAt;
+        // Only touched by the worker or retry thread that currently owns the message
+        private int attempts;
+
+        private OutboundEmail(String to, String subject, String text, long enqueuedAt) {
+            this.to = to;
+            this.subject = subject;
+            this.text = text;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -2,55 +2,141 @@ package com.example.backend.foodItems;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxWriter;
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+/**
+ * Removes expired food items in chunks. Runs as a background startup task
+ * (so a large backlog never delays boot) and as a daily safety sweep. Search
+ * index deletes are queued in the outbox with each chunk.
+ */
 @Component
-public class ExpiredFoodItemCleaner implements CommandLineRunner {
+public class ExpiredFoodItemCleaner implements StartupTask {
+
+    // Each chunk of expired ids is deleted in its own short transaction
+    private static final int CHUNK_SIZE = 500;
 
     private final FoodItemRepository foodItemRepository;
-    private final FoodItemSearchService searchService; // For Elasticsearch sync
+    private final FoodItemGeoIndex geoIndex;
+    private final FoodItemInventoryLedger inventoryLedger;
+    private final FoodItemPartitionManager partitionManager;
+    private final ItemFeedPublisher itemFeedPublisher;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter removedCounter;
+    private final Timer purgeTimer;
     private static final Logger log = LoggerFactory.getLogger(ExpiredFoodItemCleaner.class);
 
-    
+
     public ExpiredFoodItemCleaner(
             FoodItemRepository foodItemRepository,
-            FoodItemSearchService searchService) {
+            FoodItemGeoIndex geoIndex,
+            FoodItemInventoryLedger inventoryLedger,
+            FoodItemPartitionManager partitionManager,
+            ItemFeedPublisher itemFeedPublisher,
+            OutboxWriter outboxWriter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
         this.foodItemRepository = foodItemRepository;
-        this.searchService = searchService;
+        this.geoIndex = geoIndex;
+        this.inventoryLedger = inventoryLedger;
+        this.partitionManager = partitionManager;
+        this.itemFeedPublisher = itemFeedPublisher;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.removedCounter = meterRegistry.counter("food_items.expired.removed");
+        this.purgeTimer = meterRegistry.timer("food_items.expired.purge.duration");
     }
-    
+
+    // Daily safety sweep; FoodItemExpiryScheduler retires items as they expire, this
+    // catches anything it missed (e.g. items inserted through another node)
     @Scheduled(cron = "0 0 1 * * ?") // Runs at 1:00 AM every day
     public void removeExpiredItems() {
+        purge(new StartupTaskContext());
+    }
+
+    @Override
+    public String getName() {
+        return "expired-food-item-purge";
+    }
+
+    @Override
+    public boolean isRequiredForReadiness() {
+        return false;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        purge(context);
+    }
+
+    private void purge(StartupTaskContext context) {
+        // Partitioned tables expire by dropping whole partitions instead
+        if (partitionManager.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
         Date currentDate = new Date();
-        List<FoodItems> expiredItems = foodItemRepository.findByExpiryDateBefore(currentDate);
-        
-        // Delete from PostgreSQL
-        foodItemRepository.deleteByExpiryDateBefore(currentDate);
-        
-        // Also remove from Elasticsearch index if you're using it
-        // This ensures your search index stays in sync
-        for (FoodItems item : expiredItems) {
-            searchService.deleteFromIndex(item.getId());
+        int removed = 0;
+        long afterId = 0;
+
+        // Walk the expired ids by keyset so rows that fail to delete can't stall the loop
+        List<Long> ids;
+        while (!context.isCancelled()
+                && !(ids = foodItemRepository.findExpiredIdsAfter(
+                        currentDate, afterId, PageRequest.of(0, CHUNK_SIZE))).isEmpty()) {
+            removed += removeChunk(ids, currentDate);
+            afterId = ids.get(ids.size() - 1);
+            context.advance(ids.size());
         }
-        
-        log.info("Removed {} expired food items", expiredItems.size());
+
+        long elapsed = System.nanoTime() - start;
+        purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Removed {} expired food items in {} ms", removed, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    // Retires specific items that have reached their expiry date
+    public int removeItems(List<Long> ids) {
+        return removeChunk(ids, new Date());
     }
 
     public void manuallyRemoveExpiredItems() {
         removeExpiredItems();
     }
 
-    @Override
-    public void run(String... args) {
-        // Run your cleanup logic here
-        Date currentDate = new Date();
-        foodItemRepository.deleteByExpiryDateBefore(currentDate);
-        System.out.println("Startup cleanup: Removed expired food items at " + new Date());
+    private int removeChunk(List<Long> ids, Date currentDate) {
+        Integer removed = transactionTemplate.execute(status -> {
+            // Built from the rows before they go; sent when the delete commits
+            itemFeedPublisher.publishExpired(ids, currentDate);
+            foodItemRepository.deleteExpiredPhotosByItemIds(ids, currentDate);
+            // The relay drops them from the search index, retrying until it succeeds;
+            // outbox.delivery.lag measures from this commit
+            outboxWriter.append(OutboxEvent.SEARCH_SYNC, new FoodItemIds(ids));
+            return foodItemRepository.deleteExpiredByIds(ids, currentDate);
+        });
+        for (Long id : ids) {
+            geoIndex.remove(id);
+            inventoryLedger.evict(id);
+        }
+        removedCounter.increment(removed);
+        return removed;
     }
 }
@@ -1,32 +1,97 @@
 package com.example.backend.foodItems;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api")
 public class FoodItemController {
 
+  private static final int MAX_PAGE_SIZE = 500;
+
   private final FoodItemRepository foodItemRepository;
   private final FoodItemService foodItemService;
   private final FoodItemSearchService searchService;
+  private final FoodItemGeoIndex geoIndex;
+  private final FoodItemStreamer foodItemStreamer;
+  private final FoodItemImportService importService;
+  private final FoodItemExpiryScheduler expiryScheduler;
+  private final FoodItemPartitionManager partitionManager;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ItemFeedHub itemFeedHub;
 
   public FoodItemController(
     FoodItemRepository foodItemRepository,
     FoodItemService foodItemService,
-    FoodItemSearchService searchService
+    FoodItemSearchService searchService,
+    FoodItemGeoIndex geoIndex,
+    FoodItemStreamer foodItemStreamer,
+    FoodItemImportService importService,
+    FoodItemExpiryScheduler expiryScheduler,
+    FoodItemPartitionManager partitionManager,
+    ApplicationEventPublisher eventPublisher,
+    ItemFeedHub itemFeedHub
   ) {
     this.foodItemService = foodItemService;
     this.foodItemRepository = foodItemRepository;
     this.searchService = searchService;
+    this.geoIndex = geoIndex;
+    this.foodItemStreamer = foodItemStreamer;
+    this.importService = importService;
+    this.expiryScheduler = expiryScheduler;
+    this.partitionManager = partitionManager;
+    this.eventPublisher = eventPublisher;
+    this.itemFeedHub = itemFeedHub;
   }
 
   @PostMapping("/add-items")
   public void addItems(@RequestBody FoodItems[] foodItems) {
-    for (FoodItems foodItem : foodItems) {
-      foodItemRepository.save(foodItem);
+    partitionManager.ensurePartitionsFor(
+      Arrays.stream(foodItems).map(FoodItems::getExpiryDate).toList()
+    );
+    List<FoodItems> saved = foodItemService.saveItems(foodItems);
+    for (FoodItems foodItem : saved) {
+      geoIndex.add(foodItem);
+      expiryScheduler.schedule(foodItem);
+    }
+    eventPublisher.publishEvent(new FoodItemsAddedEvent(saved));
+  }
+
+  // Streams a CSV or NDJSON body; re-send the same file with jobId to resume a failed import
+  @PostMapping("/items/import")
+  public ResponseEntity<?> importItems(
+    @RequestParam Long donorId,
+    @RequestParam(required = false, defaultValue = "ndjson") String format,
+    @RequestParam(required = false) Long jobId,
+    HttpServletRequest request
+  ) throws IOException {
+    try {
+      return ResponseEntity.ok(
+        importService.importItems(jobId, donorId, format, request.getInputStream())
+      );
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(e.getMessage());
     }
-    foodItemService.sendNotifications(foodItems);
+  }
+
+  @GetMapping("/items/import/{jobId}")
+  public ResponseEntity<FoodItemImportJob> getImportJob(@PathVariable Long jobId) {
+    FoodItemImportJob job = importService.getJob(jobId);
+    if (job == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(job);
   }
 
   @GetMapping("/items")
@@ -34,13 +99,64 @@ public class FoodItemController {
     return foodItemRepository.findAllWithNonZeroQuantity();
   }
 
+  // Keyset pagination: pass the previous page's nextCursor as "after"
+  @GetMapping("/items/page")
+  public FoodItemPage getItemsPage(
+    @RequestParam(required = false, defaultValue = "0") Long after,
+    @RequestParam(required = false, defaultValue = "50") int size
+  ) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    List<FoodItems> items = foodItemRepository.findPageAfterId(
+      after,
+      PageRequest.of(0, pageSize)
+    );
+    Long nextCursor = items.size() == pageSize
+      ? items.get(items.size() - 1).getId()
+      : null;
+    return new FoodItemPage(items, nextCursor);
+  }
+
+  @GetMapping("/items/stream")
+  public ResponseEntity<StreamingResponseBody> streamItems() {
+    return ResponseEntity
+      .ok()
+      .contentType(MediaType.APPLICATION_NDJSON)
+      .body(foodItemStreamer::writeAvailableItems);
+  }
+
   @GetMapping("/items/nearby")
   public List<FoodItems> getNearbyItems(
     @RequestParam double lat,
     @RequestParam double lng,
     @RequestParam int distance
   ) {
-    return foodItemRepository.findItemsWithinDistance(lat, lng, distance);
+    // Fall back to the database until the in-memory index has been loaded
+    if (!geoIndex.isLoaded()) {
+      return foodItemRepository.findItemsWithinDistance(lat, lng, distance);
+    }
+    List<Long> ids = geoIndex.findNearbyIds(lat, lng, distance);
+    if (ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return foodItemRepository.findAllById(ids);
+  }
+
+  // Server-Sent Events with ADDED, RESERVED, RELEASED and EXPIRED deltas for items
+  // within radiusKm; load /items/nearby once the stream is open, and again after a reconnect
+  @GetMapping(path = "/items/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> getItemFeed(
+    @RequestParam double lat,
+    @RequestParam double lng,
+    @RequestParam(required = false, defaultValue = "5") double radiusKm
+  ) {
+    if (Math.abs(lat) > 90 || Math.abs(lng) > 180 || radiusKm <= 0) {
+      return ResponseEntity.badRequest().build();
+    }
+    SseEmitter emitter = itemFeedHub.subscribe(lat, lng, radiusKm);
+    if (emitter == null) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    return ResponseEntity.ok(emitter);
   }
 
   @GetMapping("/items/{id}")
@@ -79,3 +195,33 @@ public class FoodItemController {
     searchService.indexAllFoodItems();
   }
 }
+
+/**
+ * One page of items plus the cursor for the next page (null on the last page).
+ */
+class FoodItemPage {
+
+  private List<FoodItems> items;
+  private Long nextCursor;
+
+  public FoodItemPage(List<FoodItems> items, Long nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<FoodItems> getItems() {
+    return items;
+  }
+
+  public void setItems(List<FoodItems> items) {
+    this.items = items;
+  }
+
+  public Long getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(Long nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.foodItems;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+
+/**
+ * Retires food items close to their real expiry time instead of once a day.
+ * Items sit in a queue ordered by expiry date; every tick the due ones are
+ * removed in small batches, capped per tick so a burst of items expiring at
+ * midnight is spread over the following minutes rather than one big delete.
+ * The queue is filled by a background startup task; it does not gate
+ * readiness because the daily sweep still covers anything it misses.
+ */
+@Component
+public class FoodItemExpiryScheduler implements StartupTask {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_PER_TICK = 2000;
+
+    private final FoodItemRepository foodItemRepository;
+    private final ExpiredFoodItemCleaner cleaner;
+    private final FoodItemPartitionManager partitionManager;
+    private final ConcurrentSkipListSet<ExpiryEntry> queue = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(ExpiryEntry::dueAt).thenComparingLong(ExpiryEntry::id));
+    private static final Logger log = LoggerFactory.getLogger(FoodItemExpiryScheduler.class);
+
+    public FoodItemExpiryScheduler(
+            FoodItemRepository foodItemRepository,
+            ExpiredFoodItemCleaner cleaner,
+            FoodItemPartitionManager partitionManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.cleaner = cleaner;
+        this.partitionManager = partitionManager;
+    }
+
+    @Override
+    public String getName() {
+        return "food-item-expiry-queue";
+    }
+
+    @Override
+    public boolean isRequiredForReadiness() {
+        return false;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        if (partitionManager.isEnabled()) {
+            return;
+        }
+        List<Object[]> rows = foodItemRepository.findAllIdsAndExpiryDates();
+        context.setTotal(rows.size());
+        for (Object[] row : rows) {
+            if (context.isCancelled()) {
+                return;
+            }
+            schedule((Long) row[0], (Date) row[1]);
+            context.advance(1);
+        }
+        log.info("Expiry queue loaded with {} food items", queue.size());
+    }
+
+    public void schedule(FoodItems item) {
+        schedule(item.getId(), item.getExpiryDate());
+    }
+
+    private void schedule(Long id, Date expiryDate) {
+        if (id != null && expiryDate != null && !partitionManager.isEnabled()) {
+            queue.add(new ExpiryEntry(expiryDate.getTime(), id));
+        }
+    }
+
+    @Scheduled(fixedDelay = 30000)
+    public void retireDueItems() {
+        long now = System.currentTimeMillis();
+        int retired = 0;
+        while (retired < MAX_PER_TICK) {
+            List<Long> due = new ArrayList<>(BATCH_SIZE);
+            while (due.size() < BATCH_SIZE) {
+                ExpiryEntry first = queue.pollFirst();
+                if (first == null) {
+                    break;
+                }
+                if (first.dueAt() > now) {
+                    queue.add(first);
+                    break;
+                }
+                due.add(first.id());
+            }
+            if (due.isEmpty()) {
+                break;
+            }
+            try {
+                retired += cleaner.removeItems(due);
+            } catch (RuntimeException e) {
+                // Put the batch back so the next tick retries it
+                due.forEach(id -> queue.add(new ExpiryEntry(now, id)));
+                log.warn("Failed to retire {} expired food items", due.size(), e);
+                break;
+            }
+        }
+        if (retired > 0) {
+            log.info("Retired {} expired food items", retired);
+        }
+    }
+
+    private record ExpiryEntry(long dueAt, long id) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backend.foodItems;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * In-process spatial index of available food items used to answer
+ * /api/items/nearby without running ST_DWithin against Postgres.
+ * Loading it is a readiness-gating startup task.
+ *
+ * This node's own writes update it directly; changes made on other nodes
+ * arrive as item feed notifications ({@link ItemFeedListener}). Feed
+ * notifications sent while the listener is reconnecting are missed, and
+ * deletes outside the feed are not announced, so the index is also resynced
+ * from the table every few minutes.
+ */
+@Component
+public class FoodItemGeoIndex implements StartupTask {
+
+    // ~5.5 km cells, sized for the typical nearby radius
+    private static final double CELL_SIZE_DEG = 0.05;
+
+    private final FoodItemRepository foodItemRepository;
+    private final GeoCellIndex<IndexedItem> index = new GeoCellIndex<>(CELL_SIZE_DEG);
+    private volatile boolean loaded = false;
+    private static final Logger log = LoggerFactory.getLogger(FoodItemGeoIndex.class);
+
+    public FoodItemGeoIndex(FoodItemRepository foodItemRepository) {
+        this.foodItemRepository = foodItemRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "food-item-geo-index";
+    }
+
+    @Override
+    public boolean isRequiredForReadiness() {
+        return true;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        List<FoodItems> items = foodItemRepository.findAllWithNonZeroQuantity();
+        context.setTotal(items.size());
+        for (FoodItems item : items) {
+            if (context.isCancelled()) {
+                return;
+            }
+            add(item);
+            context.advance(1);
+        }
+        loaded = true;
+        log.info("Geo index loaded with {} food items", index.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void add(FoodItems item) {
+        if (item.getId() == null || item.getPickupLatitude() == null || item.getPickupLongitude() == null) {
+            return;
+        }
+        index.put(item.getId(),
+                item.getPickupLatitude().doubleValue(),
+                item.getPickupLongitude().doubleValue(),
+                new IndexedItem(item.getId(), item.getQuantity()));
+    }
+
+    /**
+     * Applies an item feed notification, whichever node made the change. Its
+     * quantity is the stored one, not a delta, so applying a change this node
+     * already made is harmless.
+     */
+    public void apply(JsonNode event) {
+        long id = event.path("id").asLong();
+        int quantity = event.path("quantity").asInt();
+        if (ItemFeedPublisher.EXPIRED.equals(event.path("type").asText()) || quantity <= 0) {
+            remove(id);
+            return;
+        }
+        index.put(id,
+                event.path("pickupLatitude").asDouble(),
+                event.path("pickupLongitude").asDouble(),
+                new IndexedItem(id, quantity));
+    }
+
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // Every 5 minutes
+    public void resync() {
+        if (!loaded) {
+            return;
+        }
+        // Snapshot first so items added while the query runs are not dropped
+        Set<Long> stale = new HashSet<>(index.ids());
+        for (FoodItems item : foodItemRepository.findAllWithNonZeroQuantity()) {
+            add(item);
+            stale.remove(item.getId());
+        }
+        stale.forEach(index::remove);
+    }
+
+    public void adjustQuantity(Long id, int delta) {
+        IndexedItem item = index.get(id);
+        if (item != null) {
+            item.quantity.addAndGet(delta);
+        }
+    }
+
+    public void remove(Long id) {
+        index.remove(id);
+    }
+
+    // Ids of items with remaining quantity within distanceKm of the given point
+    public List<Long> findNearbyIds(double lat, double lng, double distanceKm) {
+        return index.within(lat, lng, distanceKm, item -> item.quantity.get() > 0)
+                .stream()
+                .map(item -> item.id)
+                .collect(Collectors.toList());
+    }
+
+    private static final class IndexedItem {
+        private final long id;
+        private final AtomicInteger quantity;
+
+        private IndexedItem(long id, Integer quantity) {
+            this.id = id;
+            this.quantity = new AtomicInteger(quantity != null ? quantity : 0);
+        }
+    }
+}
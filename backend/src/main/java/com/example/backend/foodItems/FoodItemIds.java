@@ -0,0 +1,8 @@
+package com.example.backend.foodItems;
+
+import java.util.List;
+
+/**
+ * Outbox payload naming the food items an event is about.
+ */
+public record FoodItemIds(List<Long> itemIds) {}
@@ -0,0 +1,142 @@
+package com.example.backend.foodItems;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.util.Date;
+
+/**
+ * Progress of a streaming import. committedRows is the number of data rows
+ * (accepted or rejected) covered by committed batches, so a failed import
+ * can be resumed by re-sending the same file with this job's id.
+ */
+@Entity
+@Table(name = "food_item_import_jobs")
+public class FoodItemImportJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "donor_id", nullable = false)
+    private Long donorId;
+
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = RUNNING;
+
+    @Column(name = "committed_rows", nullable = false)
+    private Long committedRows = 0L;
+
+    @Column(name = "imported_rows", nullable = false)
+    private Long importedRows = 0L;
+
+    @Column(name = "rejected_rows", nullable = false)
+    private Long rejectedRows = 0L;
+
+    @Column(name = "error_sample", columnDefinition = "TEXT")
+    private String errorSample;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Date createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Date updatedAt;
+
+    public FoodItemImportJob() {
+    }
+
+    public FoodItemImportJob(Long donorId, String format) {
+        this.donorId = donorId;
+        this.format = format;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDonorId() {
+        return donorId;
+    }
+
+    public void setDonorId(Long donorId) {
+        this.donorId = donorId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getCommittedRows() {
+        return committedRows;
+    }
+
+    public void setCommittedRows(Long committedRows) {
+        this.committedRows = committedRows;
+    }
+
+    public Long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(Long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public Long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(Long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public String getErrorSample() {
+        return errorSample;
+    }
+
+    public void setErrorSample(String errorSample) {
+        this.errorSample = errorSample;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.backend.foodItems;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FoodItemImportJobRepository extends JpaRepository<FoodItemImportJob, Long> {
+}
@@ -0,0 +1,303 @@
+package com.example.backend.foodItems;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streaming bulk import for large donors. Rows are parsed one line at a time
+ * from CSV (with a header row) or NDJSON, validated, and written in
+ * fixed-size batches. Each batch commits together with the job's progress,
+ * so a retry with the same job id skips exactly the rows already committed.
+ * Every item belongs to the job's donor; a row naming another donor is
+ * rejected.
+ */
+@Service
+public class FoodItemImportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ERROR_SAMPLES = 20;
+    private static final Logger log = LoggerFactory.getLogger(FoodItemImportService.class);
+
+    private final FoodItemRepository foodItemRepository;
+    private final FoodItemImportJobRepository jobRepository;
+    private final OutboxWriter outboxWriter;
+    private final ItemFeedPublisher itemFeedPublisher;
+    private final FoodItemGeoIndex geoIndex;
+    private final FoodItemExpiryScheduler expiryScheduler;
+    private final FoodItemPartitionManager partitionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FoodItemImportService(
+            FoodItemRepository foodItemRepository,
+            FoodItemImportJobRepository jobRepository,
+            OutboxWriter outboxWriter,
+            ItemFeedPublisher itemFeedPublisher,
+            FoodItemGeoIndex geoIndex,
+            FoodItemExpiryScheduler expiryScheduler,
+            FoodItemPartitionManager partitionManager,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher) {
+        this.foodItemRepository = foodItemRepository;
+        this.jobRepository = jobRepository;
+        this.outboxWriter = outboxWriter;
+        this.itemFeedPublisher = itemFeedPublisher;
+        this.geoIndex = geoIndex;
+        this.expiryScheduler = expiryScheduler;
+        this.partitionManager = partitionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public FoodItemImportJob importItems(Long jobId, Long donorId, String format, InputStream input) throws IOException {
+        String normalizedFormat = format.toLowerCase();
+        if (!CSV.equals(normalizedFormat) && !NDJSON.equals(normalizedFormat)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+
+        FoodItemImportJob job;
+        if (jobId != null) {
+            job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown import job: " + jobId));
+            if (!job.getDonorId().equals(donorId)) {
+                throw new IllegalArgumentException("Import job " + jobId + " belongs to another donor");
+            }
+            if (FoodItemImportJob.COMPLETED.equals(job.getStatus())) {
+                return job;
+            }
+            job.setStatus(FoodItemImportJob.RUNNING);
+        } else {
+            job = new FoodItemImportJob(donorId, normalizedFormat);
+        }
+        job = jobRepository.save(job);
+
+        try {
+            run(job, input);
+            job.setStatus(FoodItemImportJob.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            // Reload so the recorded progress is what actually committed
+            job = jobRepository.findById(job.getId()).orElse(job);
+            log.warn("Import job {} failed after {} rows", job.getId(), job.getCommittedRows(), e);
+            job.setStatus(FoodItemImportJob.FAILED);
+            appendError(job, "failed: " + e.getMessage());
+        }
+        return jobRepository.save(job);
+    }
+
+    public FoodItemImportJob getJob(Long jobId) {
+        return jobRepository.findById(jobId).orElse(null);
+    }
+
+    private void run(FoodItemImportJob job, InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        boolean csv = CSV.equals(job.getFormat());
+        Map<String, Integer> header = csv ? readHeader(reader) : null;
+
+        long skip = job.getCommittedRows();
+        long rowNumber = 0;
+        List<FoodItems> batch = new ArrayList<>(BATCH_SIZE);
+        List<String> errors = new ArrayList<>();
+        int consumed = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            if (rowNumber <= skip) {
+                continue;
+            }
+            consumed++;
+            try {
+                FoodItems item = csv ? parseCsv(header, line) : objectMapper.readValue(line, FoodItems.class);
+                if (item.getDonorId() == null) {
+                    item.setDonorId(job.getDonorId());
+                } else if (!item.getDonorId().equals(job.getDonorId())) {
+                    throw new IllegalArgumentException("donorId " + item.getDonorId() + " does not match the import's donor");
+                }
+                validate(item);
+                batch.add(item);
+            } catch (IOException | RuntimeException e) {
+                errors.add("row " + rowNumber + ": " + e.getMessage());
+            }
+            if (consumed == BATCH_SIZE) {
+                commit(job, batch, consumed, errors);
+                batch = new ArrayList<>(BATCH_SIZE);
+                errors = new ArrayList<>();
+                consumed = 0;
+            }
+        }
+        if (consumed > 0) {
+            commit(job, batch, consumed, errors);
+        }
+    }
+
+    // Items and job progress commit together; that is the resume checkpoint
+    private void commit(FoodItemImportJob job, List<FoodItems> batch, int consumed, List<String> errors) {
+        partitionManager.ensurePartitionsFor(batch.stream().map(FoodItems::getExpiryDate).toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            // Flushed so the feed notification can read the rows
+            foodItemRepository.saveAllAndFlush(batch);
+            if (!batch.isEmpty()) {
+                FoodItemIds ids = new FoodItemIds(batch.stream().map(FoodItems::getId).toList());
+                outboxWriter.append(OutboxEvent.SEARCH_SYNC, ids);
+                outboxWriter.append(OutboxEvent.SUBSCRIPTION_MATCH, ids);
+                itemFeedPublisher.publish(ItemFeedPublisher.ADDED, ids.itemIds());
+            }
+            job.setCommittedRows(job.getCommittedRows() + consumed);
+            job.setImportedRows(job.getImportedRows() + batch.size());
+            job.setRejectedRows(job.getRejectedRows() + errors.size());
+            errors.forEach(error -> appendError(job, error));
+            jobRepository.save(job);
+        });
+
+        for (FoodItems item : batch) {
+            geoIndex.add(item);
+            expiryScheduler.schedule(item);
+        }
+        if (!batch.isEmpty()) {
+            eventPublisher.publishEvent(new FoodItemsAddedEvent(List.copyOf(batch)));
+        }
+        log.info("Import job {}: {} rows committed", job.getId(), job.getCommittedRows());
+    }
+
+    private void validate(FoodItems item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (item.getQuantity() == null || item.getQuantity() <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        if (item.getExpiryDate() == null) {
+            throw new IllegalArgumentException("expiryDate is required");
+        }
+        if (item.getExpiryDate().before(startOfToday())) {
+            throw new IllegalArgumentException("expiryDate is in the past");
+        }
+        if (item.getPickupLocation() == null || item.getPickupLocation().isBlank()) {
+            throw new IllegalArgumentException("pickupLocation is required");
+        }
+        if (item.getPickupLatitude() != null && item.getPickupLatitude().abs().compareTo(BigDecimal.valueOf(90)) > 0) {
+            throw new IllegalArgumentException("pickupLatitude is out of range");
+        }
+        if (item.getPickupLongitude() != null && item.getPickupLongitude().abs().compareTo(BigDecimal.valueOf(180)) > 0) {
+            throw new IllegalArgumentException("pickupLongitude is out of range");
+        }
+        item.setId(null);
+        item.setMatched(false);
+    }
+
+    private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            throw new IllegalArgumentException("CSV input has no header row");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = splitCsv(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        return header;
+    }
+
+    private FoodItems parseCsv(Map<String, Integer> header, String line) {
+        List<String> values = splitCsv(line);
+        FoodItems item = new FoodItems();
+        String donorId = column(header, values, "donorId");
+        if (donorId != null) {
+            item.setDonorId(Long.valueOf(donorId));
+        }
+        item.setName(column(header, values, "name"));
+        String quantity = column(header, values, "quantity");
+        item.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+        String expiryDate = column(header, values, "expiryDate");
+        if (expiryDate != null) {
+            item.setExpiryDate(Date.from(LocalDate.parse(expiryDate).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        }
+        item.setPickupLocation(column(header, values, "pickupLocation"));
+        String latitude = column(header, values, "pickupLatitude");
+        item.setPickupLatitude(latitude != null ? new BigDecimal(latitude) : null);
+        String longitude = column(header, values, "pickupLongitude");
+        item.setPickupLongitude(longitude != null ? new BigDecimal(longitude) : null);
+        return item;
+    }
+
+    private String column(Map<String, Integer> header, List<String> values, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 style splitting for a single line: quoted fields may contain commas and "" escapes
+    private List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private void appendError(FoodItemImportJob job, String error) {
+        String sample = job.getErrorSample();
+        int lines = sample == null ? 0 : (int) sample.lines().count();
+        if (lines < MAX_ERROR_SAMPLES) {
+            job.setErrorSample(sample == null ? error : sample + "\n" + error);
+        }
+    }
+
+    private Date startOfToday() {
+        return Date.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
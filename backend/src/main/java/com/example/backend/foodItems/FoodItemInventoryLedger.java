@@ -0,0 +1,103 @@
+package com.example.backend.foodItems;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory admission ledger for food item quantities.
+ *
+ * Claims are admitted with a compare-and-decrement on a per-item counter, so
+ * over-claims are rejected immediately, without reading the table or opening
+ * a transaction. Admitted claims are then written by the order's own guarded
+ * UPDATE, which stays authoritative.
+ *
+ * The ledger is per node: each backend admits against the quantity it loaded,
+ * less what this node holds without having written it yet. When the table
+ * rejects an admitted claim, the caller evicts the item so it is reloaded. A
+ * counter can also be stale-low, for example after a cancel on another node;
+ * counters are therefore reloaded once they are older than refresh-seconds,
+ * rather than re-reading the table on every rejection.
+ */
+@Component
+public class FoodItemInventoryLedger {
+
+    private final FoodItemRepository foodItemRepository;
+    private final long refreshMillis;
+    private final ConcurrentHashMap<Long, Counter> available = new ConcurrentHashMap<>();
+
+    public FoodItemInventoryLedger(
+            FoodItemRepository foodItemRepository,
+            @Value("${inventory-ledger.refresh-seconds:30}") long refreshSeconds) {
+        this.foodItemRepository = foodItemRepository;
+        this.refreshMillis = refreshSeconds * 1000;
+    }
+
+    /**
+     * Takes quantity from the item if enough is left; false means the claim is
+     * rejected. held is what this node holds for the item without having
+     * written it; it is only asked for when the counter is (re)loaded.
+     */
+    public boolean tryReserve(Long itemId, int quantity, IntSupplier held) {
+        Counter counter = counter(itemId, held);
+        if (counter == null) {
+            return false;
+        }
+        while (true) {
+            int current = counter.quantity.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.quantity.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives back quantity taken by tryReserve (abandoned claim or cancelled pickup)
+    public void release(Long itemId, int quantity) {
+        Counter counter = available.get(itemId);
+        if (counter != null) {
+            counter.quantity.addAndGet(quantity);
+        }
+    }
+
+    public void evict(Long itemId) {
+        available.remove(itemId);
+    }
+
+    public int getAvailable(Long itemId) {
+        Counter counter = counter(itemId, () -> 0);
+        return counter != null ? counter.quantity.get() : 0;
+    }
+
+    // Loads the counter, or reloads it once it is older than refreshMillis; one table read per item per interval
+    private Counter counter(Long itemId, IntSupplier held) {
+        long now = System.currentTimeMillis();
+        Counter counter = available.get(itemId);
+        if (counter != null && counter.loadedAt + refreshMillis > now) {
+            return counter;
+        }
+        return available.compute(itemId, (id, current) -> {
+            if (current != null && current.loadedAt + refreshMillis > now) {
+                return current;
+            }
+            Integer stored = foodItemRepository.findQuantityById(id);
+            return stored != null ? new Counter(Math.max(stored - held.getAsInt(), 0), now) : null;
+        });
+    }
+
+    private static final class Counter {
+
+        private final AtomicInteger quantity;
+        private final long loadedAt;
+
+        private Counter(int quantity, long loadedAt) {
+            this.quantity = new AtomicInteger(quantity);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
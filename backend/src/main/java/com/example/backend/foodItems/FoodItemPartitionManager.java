@@ -0,0 +1,160 @@
+package com.example.backend.foodItems;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxWriter;
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+
+/**
+ * Maintains the daily expiry_date partitions of food_items when the table has
+ * been converted with db/partition_food_items.sql. Partitions are created
+ * ahead of time and on demand before inserts; partitions for past days are
+ * detached and dropped, which replaces the row-level expiry DELETEs. Each
+ * drop commits together with the photo cleanup and the search index
+ * deletes it queues in the outbox.
+ * Does nothing unless food-items.partitioning.enabled is set.
+ */
+@Component
+public class FoodItemPartitionManager implements StartupTask {
+
+    private static final String PARTITION_PREFIX = "food_items_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // Ids per outbox event, as the row-level cleaner's chunks
+    private static final int SEARCH_SYNC_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final FoodItemGeoIndex geoIndex;
+    private final FoodItemInventoryLedger inventoryLedger;
+    private final boolean enabled;
+    private final int premakeDays;
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+    private static final Logger log = LoggerFactory.getLogger(FoodItemPartitionManager.class);
+
+    public FoodItemPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            OutboxWriter outboxWriter,
+            FoodItemGeoIndex geoIndex,
+            FoodItemInventoryLedger inventoryLedger,
+            @Value("${food-items.partitioning.enabled:false}") boolean enabled,
+            @Value("${food-items.partitioning.premake-days:14}") int premakeDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxWriter = outboxWriter;
+        this.geoIndex = geoIndex;
+        this.inventoryLedger = inventoryLedger;
+        this.enabled = enabled;
+        this.premakeDays = premakeDays;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getName() {
+        return "food-item-partitions";
+    }
+
+    // Inserts fail without a partition for their day, so this gates readiness
+    @Override
+    public boolean isRequiredForReadiness() {
+        return enabled;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        maintain();
+    }
+
+    @Scheduled(cron = "0 5 0 * * ?") // Shortly after midnight every day
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= premakeDays; i++) {
+            ensurePartition(today.plusDays(i));
+        }
+        dropPartitionsBefore(today);
+    }
+
+    // Called before inserting items whose expiry date may lie beyond the pre-created range
+    public void ensurePartitionsFor(Collection<Date> expiryDates) {
+        if (!enabled) {
+            return;
+        }
+        for (Date expiryDate : expiryDates) {
+            if (expiryDate != null) {
+                ensurePartition(DateUtils.toLocalDate(expiryDate));
+            }
+        }
+    }
+
+    private void ensurePartition(LocalDate day) {
+        if (knownPartitions.contains(day)) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT food_items_ensure_partition(?)", day);
+        knownPartitions.add(day);
+    }
+
+    private void dropPartitionsBefore(LocalDate today) {
+        // Partitions, and tables left detached by an earlier run that failed before dropping them
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname, i.inhrelid IS NOT NULL AS attached FROM pg_class c " +
+                "LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = 'food_items'::regclass " +
+                "WHERE c.relkind = 'r' AND c.relname ~ '^" + PARTITION_PREFIX + "[0-9]{8}$' " +
+                "AND pg_table_is_visible(c.oid)");
+        for (Map<String, Object> row : partitions) {
+            String partition = (String) row.get("relname");
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (!day.isBefore(today)) {
+                continue;
+            }
+            boolean attached = (Boolean) row.get("attached");
+            // One transaction, so a failure leaves the partition attached and the next run retries it
+            List<Long> ids = transactionTemplate.execute(status -> {
+                if (attached) {
+                    jdbcTemplate.execute("ALTER TABLE food_items DETACH PARTITION " + partition);
+                }
+                List<Long> dropped = jdbcTemplate.queryForList("SELECT id FROM " + partition, Long.class);
+                jdbcTemplate.update("DELETE FROM food_item_photos WHERE food_item_id IN (SELECT id FROM " + partition + ")");
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                // The relay drops them from the search index, retrying until it succeeds
+                for (int i = 0; i < dropped.size(); i += SEARCH_SYNC_BATCH) {
+                    List<Long> batch = dropped.subList(i, Math.min(i + SEARCH_SYNC_BATCH, dropped.size()));
+                    outboxWriter.append(OutboxEvent.SEARCH_SYNC, new FoodItemIds(List.copyOf(batch)));
+                }
+                return dropped;
+            });
+            knownPartitions.remove(day);
+
+            for (Long id : ids) {
+                geoIndex.remove(id);
+                inventoryLedger.evict(id);
+            }
+            log.info("Dropped expired partition {} ({} items)", partition, ids.size());
+        }
+    }
+}
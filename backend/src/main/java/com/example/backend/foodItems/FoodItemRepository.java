@@ -4,6 +4,7 @@ import jakarta.transaction.Transactional;
 
 import java.util.Date;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,16 +13,30 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItems, Long> {
-  @Query("SELECT f FROM FoodItems f WHERE f.quantity > 0")
+  // expiryDate >= CURRENT_DATE lets Postgres prune to the live partitions when
+  // food_items is partitioned, and hides expired rows not yet purged otherwise
+  @Query(
+    "SELECT f FROM FoodItems f WHERE f.quantity > 0 AND f.expiryDate >= CURRENT_DATE"
+  )
   List<FoodItems> findAllWithNonZeroQuantity();
 
   @Query(
-    "SELECT f FROM FoodItems f WHERE f.donorId = :donorId AND f.quantity > 0"
+    "SELECT f FROM FoodItems f WHERE f.quantity > 0 AND f.expiryDate >= CURRENT_DATE " +
+    "AND f.id > :afterId ORDER BY f.id"
+  )
+  List<FoodItems> findPageAfterId(
+    @Param("afterId") Long afterId,
+    Pageable pageable
+  );
+
+  @Query(
+    "SELECT f FROM FoodItems f WHERE f.donorId = :donorId AND f.quantity > 0 " +
+    "AND f.expiryDate >= CURRENT_DATE"
   )
   List<FoodItems> findByDonorId(Long donorId);
 
   @Query(
-    value = "SELECT * FROM food_items WHERE " +
+    value = "SELECT * FROM food_items WHERE expiry_date >= CURRENT_DATE AND " +
     "ST_DWithin(" +
     "   ST_SetSRID(ST_MakePoint(pickup_longitude, pickup_latitude), 4326)::geography, " +
     "   ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography, " +
@@ -35,6 +50,9 @@ public interface FoodItemRepository extends JpaRepository<FoodItems, Long> {
     @Param("distance") int distance
   );
 
+  @Query("SELECT f.quantity FROM FoodItems f WHERE f.id = :id")
+  Integer findQuantityById(@Param("id") Long id);
+
   @Modifying
   @Transactional
   @Query(
@@ -57,6 +75,39 @@ public interface FoodItemRepository extends JpaRepository<FoodItems, Long> {
   @Query("DELETE FROM FoodItems f WHERE f.id = :id AND f.quantity = 0")
   int deleteIfZeroQuantity(@Param("id") Long id);
 
+  @Query("SELECT f.id, f.expiryDate FROM FoodItems f")
+  List<Object[]> findAllIdsAndExpiryDates();
+
+  @Query(
+    "SELECT f.id FROM FoodItems f WHERE f.expiryDate < :currentDate AND f.id > :afterId ORDER BY f.id"
+  )
+  List<Long> findExpiredIdsAfter(
+    @Param("currentDate") Date currentDate,
+    @Param("afterId") Long afterId,
+    Pageable pageable
+  );
+
+  @Modifying
+  @Transactional
+  @Query(
+    "DELETE FROM FoodItemPhoto p WHERE p.foodItem.id IN " +
+    "(SELECT f.id FROM FoodItems f WHERE f.id IN :ids AND f.expiryDate < :currentDate)"
+  )
+  int deleteExpiredPhotosByItemIds(
+    @Param("ids") List<Long> ids,
+    @Param("currentDate") Date currentDate
+  );
+
+  @Modifying
+  @Transactional
+  @Query(
+    "DELETE FROM FoodItems f WHERE f.id IN :ids AND f.expiryDate < :currentDate"
+  )
+  int deleteExpiredByIds(
+    @Param("ids") List<Long> ids,
+    @Param("currentDate") Date currentDate
+  );
+
   @Query("SELECT f FROM FoodItems f WHERE f.expiryDate < :currentDate")
   List<FoodItems> findByExpiryDateBefore(
     @Param("currentDate") Date currentDate
@@ -0,0 +1,30 @@
+package com.example.backend.foodItems;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Maps a raw food_items row to a detached {@link FoodItems} without going
+ * through the persistence context. Photos are not loaded.
+ */
+public class FoodItemRowMapper implements RowMapper<FoodItems> {
+
+    @Override
+    public FoodItems mapRow(ResultSet rs, int rowNum) throws SQLException {
+        FoodItems item = new FoodItems(
+                rs.getLong("donor_id"),
+                rs.getString("name"),
+                rs.getInt("quantity"),
+                rs.getDate("expiry_date"),
+                rs.getString("pickup_location"),
+                rs.getBigDecimal("pickup_latitude"),
+                rs.getBigDecimal("pickup_longitude"));
+        item.setId(rs.getLong("id"));
+        item.setCreatedAt(rs.getTimestamp("created_at"));
+        item.setUpdatedAt(rs.getTimestamp("updated_at"));
+        item.setMatched(rs.getBoolean("matched"));
+        return item;
+    }
+}
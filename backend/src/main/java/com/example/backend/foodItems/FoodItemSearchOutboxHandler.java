@@ -0,0 +1,65 @@
+package com.example.backend.foodItems;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxHandler;
+import com.example.backend.outbox.OutboxMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Copies the current PostgreSQL state of the named items into Elasticsearch:
+ * items that still exist are re-indexed, missing ones are deleted. Because it
+ * reads current state, replays and out-of-order delivery are harmless.
+ */
+@Component
+public class FoodItemSearchOutboxHandler implements OutboxHandler {
+
+    private final FoodItemRepository foodItemRepository;
+    private final FoodItemSearchService searchService;
+    private final ObjectMapper objectMapper;
+
+    public FoodItemSearchOutboxHandler(FoodItemRepository foodItemRepository,
+                                       FoodItemSearchService searchService,
+                                       ObjectMapper objectMapper) {
+        this.foodItemRepository = foodItemRepository;
+        this.searchService = searchService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getDestination() {
+        return OutboxEvent.SEARCH_SYNC;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        // One bulk request for the whole batch, each item once
+        Set<Long> ids = new LinkedHashSet<>();
+        for (OutboxMessage message : messages) {
+            ids.addAll(readIds(objectMapper, message));
+        }
+        List<FoodItems> items = foodItemRepository.findAllById(ids);
+        if (!items.isEmpty()) {
+            searchService.indexFoodItems(items);
+        }
+        items.forEach(item -> ids.remove(item.getId()));
+        if (!ids.isEmpty()) {
+            searchService.deleteFromIndex(new ArrayList<>(ids));
+        }
+    }
+
+    static List<Long> readIds(ObjectMapper objectMapper, OutboxMessage message) {
+        try {
+            return objectMapper.readValue(message.payload(), FoodItemIds.class).itemIds();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload " + message.id(), e);
+        }
+    }
+}
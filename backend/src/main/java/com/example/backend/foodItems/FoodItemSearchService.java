@@ -35,6 +35,15 @@ public class FoodItemSearchService {
     elasticsearchRepository.save(document);
   }
 
+  // Index several food items with one bulk request
+  public void indexFoodItems(List<FoodItems> foodItems) {
+    List<FoodItemDocument> documents = foodItems
+      .stream()
+      .map(FoodItemDocument::fromEntity)
+      .collect(Collectors.toList());
+    elasticsearchRepository.saveAll(documents);
+  }
+
   // Index all food items
   public void indexAllFoodItems() {
     List<FoodItems> allItems = foodItemRepository.findAll();
@@ -202,4 +211,14 @@ public class FoodItemSearchService {
   public void deleteFromIndex(Long id) {
     elasticsearchRepository.deleteById(id.toString());
   }
+
+  // Remove several documents with a single request
+  public void deleteFromIndex(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    elasticsearchRepository.deleteAllById(
+      ids.stream().map(String::valueOf).collect(Collectors.toList())
+    );
+  }
 }
@@ -1,56 +1,91 @@
 package com.example.backend.foodItems;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxWriter;
+import com.example.backend.users.ReceiverGeoIndex;
 import com.example.backend.users.User;
 import com.example.backend.users.UserRepository;
 
+import jakarta.transaction.Transactional;
+
 @Service
 public class FoodItemService {
 
+    private static final double NOTIFICATION_RADIUS_KM = 5;
+
     private final UserRepository userRepository;
-    private final EmailNotificationService emailNotificationService;
-    private final FoodItemSearchService searchService;
+    private final ReceiverGeoIndex receiverGeoIndex;
+    private final FoodItemRepository foodItemRepository;
+    private final NotificationCoalescer notificationCoalescer;
+    private final OutboxWriter outboxWriter;
+    private final ItemFeedPublisher itemFeedPublisher;
 
     public FoodItemService(
             UserRepository userRepository, 
-            EmailNotificationService emailNotificationService,
-            FoodItemSearchService searchService) {
-        this.emailNotificationService = emailNotificationService;
+            ReceiverGeoIndex receiverGeoIndex,
+            FoodItemRepository foodItemRepository,
+            NotificationCoalescer notificationCoalescer,
+            OutboxWriter outboxWriter,
+            ItemFeedPublisher itemFeedPublisher) {
+        this.notificationCoalescer = notificationCoalescer;
         this.userRepository = userRepository;
-        this.searchService = searchService;
+        this.receiverGeoIndex = receiverGeoIndex;
+        this.foodItemRepository = foodItemRepository;
+        this.outboxWriter = outboxWriter;
+        this.itemFeedPublisher = itemFeedPublisher;
+    }
+
+    // Single transaction so Hibernate can send the inserts as one JDBC batch; the
+    // outbox rows for indexing and emails commit with the items. Flushed before
+    // the feed notification, which reads the new rows in SQL
+    @Transactional
+    public List<FoodItems> saveItems(FoodItems[] foodItems) {
+        List<FoodItems> saved = foodItemRepository.saveAllAndFlush(Arrays.asList(foodItems));
+        if (!saved.isEmpty()) {
+            FoodItemIds ids = new FoodItemIds(saved.stream().map(FoodItems::getId).toList());
+            outboxWriter.append(OutboxEvent.SEARCH_SYNC, ids);
+            outboxWriter.append(OutboxEvent.NEW_ITEMS_EMAIL, ids);
+            outboxWriter.append(OutboxEvent.SUBSCRIPTION_MATCH, ids);
+            itemFeedPublisher.publish(ItemFeedPublisher.ADDED, ids.itemIds());
+        }
+        return saved;
     }
 
-    public void sendNotifications(FoodItems[] foodItems) {
-        // Your existing notification logic
-        FoodItems foodItem = foodItems[0];
+    // Called by the outbox relay, once per donation; the coalescer stores the notice
+    // in the relay's transaction and merges what each receiver gets within its
+    // window into one digest email
+    public void sendNotifications(List<FoodItems> foodItems) {
+        if (foodItems.isEmpty()) {
+            return;
+        }
+        FoodItems foodItem = foodItems.get(0);
         double lat1 = foodItem.getPickupLatitude().doubleValue();
         double lon1 = foodItem.getPickupLongitude().doubleValue();
-        List<User> users = userRepository.findByRole("RECEIVER");
-        
-        // Create a message with all the food items
-        StringBuilder message = new StringBuilder("Available food items:\n");
-        for (FoodItems item : foodItems) {
-            message.append(item.getName()).append("\n");
-            
-            // Index the food item in Elasticsearch
-            searchService.indexFoodItem(item);
-        }
-        
-        // Rest of your notification code
-        message.append("Pickup location: ").append(lat1).append(", ").append(lon1).append("\n");
-        message.append("Distance: 5 km\n");
-        message.append("Please respond if you are interested.");
-        
-        for (User user : users) {
-            double lat2 = user.getHomeLat().doubleValue();
-            double lon2 = user.getHomeLon().doubleValue();
-            double distance = GeoUtils.distanceKm(lat1, lon1, lat2, lon2);
-            if (distance <= 5) {
-                emailNotificationService.sendSimpleMessage(user.getEmail(), "Food Item Available", message.toString());
-            }
+        NotificationCoalescer.Notice notice = new NotificationCoalescer.Notice(
+                foodItems.stream().map(FoodItems::getId).toList(),
+                foodItems.stream().map(FoodItems::getName).toList(),
+                lat1,
+                lon1);
+
+        notificationCoalescer.add(receiverEmailsWithin(lat1, lon1), notice);
+    }
+
+    private List<String> receiverEmailsWithin(double lat, double lon) {
+        if (receiverGeoIndex.isLoaded()) {
+            return receiverGeoIndex.within(lat, lon, NOTIFICATION_RADIUS_KM).stream()
+                    .map(ReceiverGeoIndex.Receiver::email)
+                    .toList();
         }
+        // Index still loading: fall back to scanning receivers
+        return userRepository.findLocatedByRole("RECEIVER").stream()
+                .filter(user -> GeoUtils.distanceKm(lat, lon, user.getHomeLat(), user.getHomeLon())
+                        <= NOTIFICATION_RADIUS_KM)
+                .map(User::getEmail)
+                .toList();
     }
 }
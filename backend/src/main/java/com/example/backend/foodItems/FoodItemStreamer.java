@@ -0,0 +1,61 @@
+package com.example.backend.foodItems;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes available food items as NDJSON straight from a JDBC cursor, so
+ * memory use does not depend on the size of the table.
+ */
+@Component
+public class FoodItemStreamer {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+    private final FoodItemRowMapper rowMapper = new FoodItemRowMapper();
+
+    public FoodItemStreamer(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // Postgres only honours the fetch size inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = objectMapper.writerFor(FoodItems.class);
+    }
+
+    public void writeAvailableItems(OutputStream out) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] written = { 0 };
+            jdbcTemplate.query(
+                    "SELECT * FROM food_items WHERE quantity > 0 AND expiry_date >= CURRENT_DATE ORDER BY id",
+                    rs -> {
+                        try {
+                            out.write(writer.writeValueAsBytes(rowMapper.mapRow(rs, written[0])));
+                            out.write('\n');
+                            if (++written[0] % FLUSH_EVERY == 0) {
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        });
+    }
+}
@@ -13,8 +13,10 @@ import java.util.List;
 @Table(name = "food_items")
 public class FoodItems {
 
+    // Pooled sequence ids let Hibernate batch inserts; see queries.sql for the migration
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_items_id_gen")
+    @SequenceGenerator(name = "food_items_id_gen", sequenceName = "food_items_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "donor_id", nullable = false)
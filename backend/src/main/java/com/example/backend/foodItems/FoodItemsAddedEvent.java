@@ -0,0 +1,20 @@
+package com.example.backend.foodItems;
+
+import java.util.List;
+
+/**
+ * Published after new food items have been committed, by both the add-items
+ * endpoint and bulk imports.
+ */
+public class FoodItemsAddedEvent {
+
+    private final List<FoodItems> items;
+
+    public FoodItemsAddedEvent(List<FoodItems> items) {
+        this.items = items;
+    }
+
+    public List<FoodItems> getItems() {
+        return items;
+    }
+}
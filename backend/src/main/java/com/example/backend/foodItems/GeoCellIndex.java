@@ -0,0 +1,147 @@
+package com.example.backend.foodItems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index over a uniform lat/lon cell grid.
+ * A radius query only visits the cells overlapping the search circle and
+ * every candidate is confirmed with an exact {@link GeoUtils#distanceKm} check.
+ */
+public class GeoCellIndex<V> {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellSizeDeg;
+    private final long columns;
+    private final ConcurrentHashMap<Long, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, Entry<V>>> cells = new ConcurrentHashMap<>();
+
+    public GeoCellIndex(double cellSizeDeg) {
+        this.cellSizeDeg = cellSizeDeg;
+        this.columns = (long) Math.ceil(360 / cellSizeDeg) + 1;
+    }
+
+    public void put(long id, double lat, double lon, V value) {
+        Entry<V> entry = new Entry<>(lat, lon, cellKey(lat, lon), value);
+        entries.compute(id, (key, previous) -> {
+            if (previous != null && previous.cell != entry.cell) {
+                removeFromCell(previous.cell, id);
+            }
+            cells.compute(entry.cell, (c, members) -> {
+                ConcurrentHashMap<Long, Entry<V>> cellEntries = members != null ? members : new ConcurrentHashMap<>();
+                cellEntries.put(id, entry);
+                return cellEntries;
+            });
+            return entry;
+        });
+    }
+
+    public V get(long id) {
+        Entry<V> entry = entries.get(id);
+        return entry != null ? entry.value : null;
+    }
+
+    public V remove(long id) {
+        Entry<V> removed = entries.remove(id);
+        if (removed == null) {
+            return null;
+        }
+        removeFromCell(removed.cell, id);
+        return removed.value;
+    }
+
+    public void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    public Set<Long> ids() {
+        return entries.keySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<V> within(double lat, double lon, double radiusKm) {
+        return within(lat, lon, radiusKm, value -> true);
+    }
+
+    public List<V> within(double lat, double lon, double radiusKm, Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        long minRow = row(Math.max(lat - latSpan, -90));
+        long maxRow = row(Math.min(lat + latSpan, 90));
+        long minCol = column(Math.max(lon - lonSpan, -180));
+        long maxCol = column(Math.min(lon + lonSpan, 180));
+
+        // A very large radius covers more cells than there are points, so scan the points instead
+        if ((maxRow - minRow + 1) * (maxCol - minCol + 1) > entries.size()) {
+            entries.forEach((id, entry) -> collect(entry, lat, lon, latSpan, lonSpan, radiusKm, filter, result));
+            return result;
+        }
+
+        for (long r = minRow; r <= maxRow; r++) {
+            for (long c = minCol; c <= maxCol; c++) {
+                ConcurrentHashMap<Long, Entry<V>> cellEntries = cells.get(r * columns + c);
+                if (cellEntries == null) {
+                    continue;
+                }
+                for (Entry<V> entry : cellEntries.values()) {
+                    collect(entry, lat, lon, latSpan, lonSpan, radiusKm, filter, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    public long cellKey(double lat, double lon) {
+        return row(lat) * columns + column(lon);
+    }
+
+    private void collect(Entry<V> entry, double lat, double lon, double latSpan, double lonSpan,
+                         double radiusKm, Predicate<V> filter, List<V> result) {
+        // Cheap bounding-box rejection before the exact haversine check
+        if (Math.abs(entry.lat - lat) > latSpan || Math.abs(entry.lon - lon) > lonSpan) {
+            return;
+        }
+        if (filter.test(entry.value)
+                && GeoUtils.distanceKm(lat, lon, entry.lat, entry.lon) <= radiusKm) {
+            result.add(entry.value);
+        }
+    }
+
+    private void removeFromCell(long cell, long id) {
+        cells.computeIfPresent(cell, (c, cellEntries) -> {
+            cellEntries.remove(id);
+            return cellEntries.isEmpty() ? null : cellEntries;
+        });
+    }
+
+    private long row(double lat) {
+        return (long) Math.floor((lat + 90) / cellSizeDeg);
+    }
+
+    private long column(double lon) {
+        return (long) Math.floor((lon + 180) / cellSizeDeg);
+    }
+
+    private static final class Entry<V> {
+        private final double lat;
+        private final double lon;
+        private final long cell;
+        private final V value;
+
+        private Entry(double lat, double lon, long cell, V value) {
+            this.lat = lat;
+            this.lon = lon;
+            this.cell = cell;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.backend.foodItems;
+
+import java.util.List;
+
+/**
+ * Outbox payload asking for an {@link ItemFeedPublisher} event of the given
+ * type for each of the items.
+ */
+public record ItemFeedChange(String type, List<Long> itemIds) {}
@@ -0,0 +1,241 @@
+package com.example.backend.foodItems;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans item deltas out to Server-Sent Event subscribers by area.
+ *
+ * Topics are cells of a fixed lat/lon grid. A subscriber joins every cell its
+ * circle overlaps, so an event only reaches the subscribers of its own cell.
+ * Each event becomes one SSE frame that every subscriber in the cell shares;
+ * nothing is serialized per connection.
+ *
+ * Idle connections hold no thread. Frames are queued per subscriber and a
+ * virtual thread drains each queue, so one stalled client blocks only its own
+ * writes; a subscriber whose queue fills up is disconnected rather than
+ * buffered without limit. Clients load the current
+ * items from /api/items/nearby and apply deltas on top; after a reconnect
+ * they reload, since events sent while they were away are not replayed.
+ */
+@Component
+public class ItemFeedHub {
+
+    // ~5.5 km cells; a 25 km radius overlaps at most 11 x 11 of them near the equator
+    private static final double CELL_SIZE_DEG = 0.05;
+    private static final int ROWS = (int) Math.round(180 / CELL_SIZE_DEG);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_SIZE_DEG);
+    private static final double KM_PER_DEGREE = 111.32;
+    public static final double MAX_RADIUS_KM = 25;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("keepalive").build();
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // One virtual thread per drain; a blocked send parks it instead of holding up other subscribers
+    private final ExecutorService senderPool = Executors.newVirtualThreadPerTaskExecutor();
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Counter eventsCounter;
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+    private static final Logger log = LoggerFactory.getLogger(ItemFeedHub.class);
+
+    public ItemFeedHub(
+            MeterRegistry meterRegistry,
+            @Value("${items.feed.queue-capacity:64}") int queueCapacity,
+            @Value("${items.feed.max-subscribers:50000}") int maxSubscribers,
+            @Value("${items.feed.timeout-minutes:30}") long timeoutMinutes) {
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMinutes * 60000;
+        this.eventsCounter = meterRegistry.counter("items.feed.events");
+        this.deliveredCounter = meterRegistry.counter("items.feed.delivered");
+        this.droppedCounter = meterRegistry.counter("items.feed.dropped");
+        meterRegistry.gauge("items.feed.subscribers", subscribers, Set::size);
+    }
+
+    /**
+     * Opens a feed for items within radiusKm of a point. Returns null when the
+     * node already holds max-subscribers connections.
+     */
+    public SseEmitter subscribe(double lat, double lon, double radiusKm) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, lat, lon, Math.min(radiusKm, MAX_RADIUS_KM), queueCapacity);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (long cell : subscriber.cells) {
+            topics.computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        return emitter;
+    }
+
+    // Called by the listener with each notification payload, as sent to clients, and its parsed form
+    public void dispatch(String payload, JsonNode event) {
+        eventsCounter.increment();
+        double lat = event.path("pickupLatitude").asDouble();
+        double lon = event.path("pickupLongitude").asDouble();
+        Set<Subscriber> topic = topics.get(cell(row(lat), column(lon)));
+        if (topic == null || topic.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .name("item")
+                .data(payload, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : topic) {
+            if (GeoUtils.distanceKm(lat, lon, subscriber.lat, subscriber.lon) <= subscriber.radiusKm) {
+                enqueue(subscriber, frame);
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${items.feed.heartbeat-seconds:30}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        senderPool.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            // Slow consumer: cut it loose; the client reconnects and reloads
+            droppedCounter.increment();
+            unsubscribe(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senderPool.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // Shutting down
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> frame;
+            while ((frame = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(frame);
+                    if (frame != HEARTBEAT) {
+                        deliveredCounter.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client disconnected or the emitter already completed
+                    unsubscribe(subscriber);
+                    subscriber.queue.clear();
+                    break;
+                }
+            }
+            subscriber.draining.set(false);
+            // A frame queued after the last poll but before the flag was cleared
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (long cell : subscriber.cells) {
+            topics.computeIfPresent(cell, (c, members) -> {
+                members.remove(subscriber);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    private static long[] cellsFor(double lat, double lon, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        int minRow = row(lat - latSpan);
+        int maxRow = row(lat + latSpan);
+        int minCol = column(lon - lonSpan);
+        int maxCol = column(lon + lonSpan);
+        long[] cells = new long[(maxRow - minRow + 1) * (maxCol - minCol + 1)];
+        int i = 0;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                cells[i++] = cell(r, c);
+            }
+        }
+        return cells;
+    }
+
+    private static long cell(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    private static int row(double lat) {
+        return Math.min(Math.max((int) Math.floor((lat + 90) / CELL_SIZE_DEG), 0), ROWS - 1);
+    }
+
+    private static int column(double lon) {
+        return Math.min(Math.max((int) Math.floor((lon + 180) / CELL_SIZE_DEG), 0), COLUMNS - 1);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final double lat;
+        private final double lon;
+        private final double radiusKm;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        // Set while a sender owns the queue, so frames go out in order on one thread at a time
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final long[] cells;
+
+        private Subscriber(SseEmitter emitter, double lat, double lon, double radiusKm, int queueCapacity) {
+            this.emitter = emitter;
+            this.lat = lat;
+            this.lon = lon;
+            this.radiusKm = radiusKm;
+            this.cells = cellsFor(lat, lon, radiusKm);
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.foodItems;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Receives item feed notifications from PostgreSQL, whichever node committed
+ * the change, and hands them to the hub and to this node's geo index. Saved
+ * search changes arrive on the same connection and go to the percolator.
+ * Holds one pooled connection for as long as the node runs and reconnects
+ * with backoff when it is lost; notifications sent while disconnected are
+ * missed.
+ */
+@Component
+public class ItemFeedListener {
+
+    private static final int POLL_MILLIS = 5000;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final DataSource dataSource;
+    private final ItemFeedHub hub;
+    private final FoodItemGeoIndex geoIndex;
+    private final SubscriptionPercolator percolator;
+    private final ObjectMapper objectMapper;
+    private volatile boolean running = false;
+    private Thread thread;
+    private static final Logger log = LoggerFactory.getLogger(ItemFeedListener.class);
+
+    public ItemFeedListener(
+            DataSource dataSource,
+            ItemFeedHub hub,
+            FoodItemGeoIndex geoIndex,
+            SubscriptionPercolator percolator,
+            ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.hub = hub;
+        this.geoIndex = geoIndex;
+        this.percolator = percolator;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("item-feed-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        thread.interrupt();
+    }
+
+    private void receive(PGNotification notification) {
+        if (SubscriptionPercolator.CHANNEL.equals(notification.getName())) {
+            try {
+                percolator.refresh(Long.parseLong(notification.getParameter()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed subscription change: {}", notification.getParameter());
+            } catch (DataAccessException e) {
+                // The next rebuild brings it in
+                log.warn("Could not reload subscription {}", notification.getParameter(), e);
+            }
+            return;
+        }
+        receiveItem(notification.getParameter());
+    }
+
+    private void receiveItem(String payload) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed item feed payload: {}", payload);
+            return;
+        }
+        geoIndex.apply(event);
+        hub.dispatch(payload, event);
+    }
+
+    private void listen() {
+        long backoff = 1000;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ItemFeedPublisher.CHANNEL);
+                    statement.execute("LISTEN " + SubscriptionPercolator.CHANNEL);
+                }
+                backoff = 1000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Item feed listener lost its connection, retrying in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+}
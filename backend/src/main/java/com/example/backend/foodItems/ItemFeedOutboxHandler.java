@@ -0,0 +1,54 @@
+package com.example.backend.foodItems;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxHandler;
+import com.example.backend.outbox.OutboxMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Publishes queued item changes to the live feed from the relay's
+ * transaction. The payload is read from the rows as they are now, so a
+ * client always receives the current quantity; items deleted in the
+ * meantime produce no event.
+ */
+@Component
+public class ItemFeedOutboxHandler implements OutboxHandler {
+
+    private final ItemFeedPublisher itemFeedPublisher;
+    private final ObjectMapper objectMapper;
+
+    public ItemFeedOutboxHandler(ItemFeedPublisher itemFeedPublisher, ObjectMapper objectMapper) {
+        this.itemFeedPublisher = itemFeedPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getDestination() {
+        return OutboxEvent.ITEM_FEED;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        // One notification per item and type for the whole batch
+        Map<String, Set<Long>> idsByType = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            ItemFeedChange change;
+            try {
+                change = objectMapper.readValue(message.payload(), ItemFeedChange.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable outbox payload " + message.id(), e);
+            }
+            idsByType.computeIfAbsent(change.type(), t -> new LinkedHashSet<>()).addAll(change.itemIds());
+        }
+        idsByType.forEach(itemFeedPublisher::publish);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.foodItems;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Announces item changes to the live feed on every node through PostgreSQL
+ * NOTIFY. Must run inside the transaction making the change: notifications
+ * are delivered only when it commits, and the payload is built from the rows
+ * as that transaction sees them. Each notification is one item delta, as
+ * the JSON that is sent to clients unchanged; its fields are named like the
+ * item JSON from /api/items so clients can merge it into a loaded list.
+ * NOTIFY takes a cluster-wide lock at commit, so the pickup path queues its
+ * changes through the outbox ({@link ItemFeedOutboxHandler}) instead.
+ */
+@Component
+public class ItemFeedPublisher {
+
+    public static final String CHANNEL = "item_feed";
+
+    public static final String ADDED = "ADDED";
+    // Quantity taken by a pickup; quantity 0 means the item is gone
+    public static final String RESERVED = "RESERVED";
+    // Quantity given back by a cancelled pickup
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+
+    private static final String NOTIFY_SQL =
+            "SELECT pg_notify('" + CHANNEL + "', json_build_object(" +
+            "'type', ?, 'id', id, 'donorId', donor_id, 'name', name, 'quantity', quantity, " +
+            "'expiryDate', expiry_date, 'pickupLocation', pickup_location, " +
+            "'pickupLatitude', pickup_latitude, 'pickupLongitude', pickup_longitude)::text) " +
+            "FROM food_items WHERE id = ANY(?) " +
+            "AND pickup_latitude IS NOT NULL AND pickup_longitude IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemFeedPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String type, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(NOTIFY_SQL, rs -> {}, type, itemIds.toArray(new Long[0]));
+    }
+
+    // Call before deleting the items; only those past their expiry are announced
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishExpired(Collection<Long> itemIds, Date currentDate) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(NOTIFY_SQL + " AND expiry_date < ?", rs -> {},
+                EXPIRED, itemIds.toArray(new Long[0]), new Timestamp(currentDate.getTime()));
+    }
+}
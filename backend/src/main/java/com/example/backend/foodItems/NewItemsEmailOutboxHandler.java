@@ -0,0 +1,45 @@
+package com.example.backend.foodItems;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxHandler;
+import com.example.backend.outbox.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Queues the "food item available" notices for one donation per message in
+ * the receivers' digests. They are stored in the relay's transaction, so the
+ * message is only deleted once nothing can be lost; a redelivered message
+ * does not list an item twice in an open digest.
+ */
+@Component
+public class NewItemsEmailOutboxHandler implements OutboxHandler {
+
+    private final FoodItemRepository foodItemRepository;
+    private final FoodItemService foodItemService;
+    private final ObjectMapper objectMapper;
+
+    public NewItemsEmailOutboxHandler(FoodItemRepository foodItemRepository,
+                                      FoodItemService foodItemService,
+                                      ObjectMapper objectMapper) {
+        this.foodItemRepository = foodItemRepository;
+        this.foodItemService = foodItemService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getDestination() {
+        return OutboxEvent.NEW_ITEMS_EMAIL;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            List<Long> ids = FoodItemSearchOutboxHandler.readIds(objectMapper, message);
+            foodItemService.sendNotifications(foodItemRepository.findAllById(ids));
+        }
+    }
+}
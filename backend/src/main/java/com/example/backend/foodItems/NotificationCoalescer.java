@@ -0,0 +1,189 @@
+package com.example.backend.foodItems;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Merges new-item notices for the same receiver into one digest email.
+ *
+ * A receiver's first notice opens a window; later notices join the digest
+ * until the window closes or the digest reaches its item limit. Open digests
+ * are rows in notification_digests and notification_digest_items, written in
+ * the outbox relay's transaction, so the outbox row is only gone once its
+ * notices are stored and a restart loses nothing. The flush tick claims due
+ * digests with SKIP LOCKED, hands them to the mail queue and deletes them in
+ * one transaction; a crash before that commits sends the digest again.
+ */
+@Component
+public class NotificationCoalescer {
+
+    private static final String SUBJECT = "Food Item Available";
+    private static final int FLUSH_BATCH = 100;
+
+    // Adds the items every receiver has not been told about yet, then opens or
+    // grows their digests. A digest that reaches max-items gets opened_at
+    // '-infinity' so the next tick sends it. Receivers are locked in email
+    // order, so concurrent relay batches cannot deadlock on them
+    private static final String ADD_SQL =
+            "WITH added AS (" +
+            "  INSERT INTO notification_digest_items (email, item_id, item_name, pickup_lat, pickup_lon, created_at) " +
+            "  SELECT e.email, i.item_id, i.item_name, ?, ?, now() " +
+            "  FROM unnest(?::varchar[]) AS e(email) " +
+            "  CROSS JOIN unnest(?::bigint[], ?::varchar[]) AS i(item_id, item_name) " +
+            "  ORDER BY e.email " +
+            "  ON CONFLICT (email, item_id) DO NOTHING RETURNING email) " +
+            "INSERT INTO notification_digests (email, opened_at, item_count) " +
+            "SELECT email, CASE WHEN count(*) >= ? THEN '-infinity'::timestamp ELSE now() END, count(*) " +
+            "FROM added GROUP BY email ORDER BY email " +
+            "ON CONFLICT (email) DO UPDATE SET " +
+            "item_count = notification_digests.item_count + EXCLUDED.item_count, " +
+            "opened_at = CASE WHEN notification_digests.item_count + EXCLUDED.item_count >= ? " +
+            "THEN '-infinity'::timestamp ELSE notification_digests.opened_at END";
+
+    private static final String CLAIM_SQL =
+            "SELECT email FROM notification_digests WHERE opened_at <= ? " +
+            "ORDER BY opened_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_ITEMS_SQL =
+            "DELETE FROM notification_digest_items WHERE email = ANY(?) " +
+            "RETURNING id, email, item_name, pickup_lat, pickup_lon";
+
+    private static final String DELETE_DIGESTS_SQL =
+            "DELETE FROM notification_digests WHERE email = ANY(?)";
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM notification_digests";
+
+    private final EmailNotificationService emailNotificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMillis;
+    private final int maxItems;
+    private final AtomicInteger pendingReceivers = new AtomicInteger();
+    private final Counter noticesCounter;
+    private final Counter digestsCounter;
+
+    public NotificationCoalescer(
+            EmailNotificationService emailNotificationService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.digest.window-seconds:600}") long windowSeconds,
+            @Value("${notifications.digest.max-items:50}") int maxItems) {
+        this.emailNotificationService = emailNotificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowMillis = windowSeconds * 1000;
+        this.maxItems = maxItems;
+        this.noticesCounter = meterRegistry.counter("notifications.digest.notices");
+        this.digestsCounter = meterRegistry.counter("notifications.digest.sent");
+        meterRegistry.gauge("notifications.digest.pending", pendingReceivers);
+    }
+
+    /** Items announced to a receiver together, with their pickup point. */
+    public record Notice(List<Long> itemIds, List<String> itemNames, double pickupLat, double pickupLon) {}
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(String email, Notice notice) {
+        add(List.of(email), notice);
+    }
+
+    // One statement for all receivers of a notice
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Collection<String> emails, Notice notice) {
+        if (emails.isEmpty() || notice.itemIds().isEmpty()) {
+            return;
+        }
+        noticesCounter.increment(emails.size());
+        jdbcTemplate.update(ADD_SQL,
+                notice.pickupLat(),
+                notice.pickupLon(),
+                emails.stream().distinct().toArray(String[]::new),
+                notice.itemIds().toArray(new Long[0]),
+                notice.itemNames().toArray(new String[0]),
+                maxItems,
+                maxItems);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void flushExpired() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - windowMillis);
+        boolean more;
+        do {
+            // A full batch means more digests may be due
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> flushBatch(cutoff)));
+        } while (more);
+        Integer pending = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class);
+        pendingReceivers.set(pending == null ? 0 : pending);
+    }
+
+    public int getPendingReceivers() {
+        return pendingReceivers.get();
+    }
+
+    private boolean flushBatch(Timestamp cutoff) {
+        List<String> emails = jdbcTemplate.queryForList(CLAIM_SQL, String.class, cutoff, FLUSH_BATCH);
+        if (emails.isEmpty()) {
+            return false;
+        }
+        String[] claimed = emails.toArray(new String[0]);
+        Map<String, Digest> digests = new LinkedHashMap<>();
+        jdbcTemplate.query(DELETE_ITEMS_SQL, rs -> {
+            digests.computeIfAbsent(rs.getString("email"), e -> new Digest())
+                    .add(rs.getLong("id"), rs.getString("item_name"),
+                            rs.getDouble("pickup_lat"), rs.getDouble("pickup_lon"));
+        }, (Object) claimed);
+        jdbcTemplate.update(DELETE_DIGESTS_SQL, (Object) claimed);
+        digests.forEach((email, digest) -> {
+            digestsCounter.increment();
+            emailNotificationService.sendSimpleMessage(email, SUBJECT, digest.render());
+        });
+        return emails.size() == FLUSH_BATCH;
+    }
+
+    private static final class Digest {
+        private final List<Line> lines = new ArrayList<>();
+
+        private void add(long id, String name, double pickupLat, double pickupLon) {
+            lines.add(new Line(id, name, pickupLat, pickupLon));
+        }
+
+        // Items in the order they were announced, grouped by pickup point
+        private String render() {
+            lines.sort((a, b) -> Long.compare(a.id(), b.id()));
+            Map<String, List<String>> namesByPickup = new LinkedHashMap<>();
+            for (Line line : lines) {
+                namesByPickup.computeIfAbsent(line.pickupLat() + ", " + line.pickupLon(), p -> new ArrayList<>())
+                        .add(line.name());
+            }
+            StringBuilder message = new StringBuilder("Available food items:\n");
+            namesByPickup.forEach((pickup, names) -> {
+                for (String name : names) {
+                    message.append(name).append("\n");
+                }
+                message.append("Pickup location: ").append(pickup).append("\n");
+            });
+            message.append("Distance: 5 km\n");
+            message.append("Please respond if you are interested.");
+            return message.toString();
+        }
+    }
+
+    private record Line(long id, String name, double pickupLat, double pickupLon) {}
+}
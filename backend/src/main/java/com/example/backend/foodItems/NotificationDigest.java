@@ -0,0 +1,44 @@
+package com.example.backend.foodItems;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+
+/**
+ * A receiver's open digest in {@link NotificationCoalescer}; its items are
+ * {@link NotificationDigestItem} rows with the same email. Both are deleted
+ * in the transaction that hands the digest email to the mail queue. Only the
+ * table definition lives here; rows are written and read with JDBC.
+ */
+@Entity
+@Table(
+    name = "notification_digests",
+    indexes = {
+        @Index(name = "idx_notification_digests_opened_at", columnList = "opened_at"),
+    }
+)
+public class NotificationDigest {
+
+    @Id
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    // '-infinity' once the digest is full, so the next flush sends it
+    @Column(name = "opened_at", nullable = false)
+    private Date openedAt;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Date getOpenedAt() {
+        return openedAt;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.foodItems;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+
+/**
+ * One item waiting in a receiver's open {@link NotificationDigest}. An item
+ * is listed once per receiver, however many times it is announced. Only the
+ * table definition lives here; rows are written and read with JDBC.
+ */
+@Entity
+@Table(
+    name = "notification_digest_items",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notification_digest_items_email_item", columnNames = {"email", "item_id"}),
+    }
+)
+public class NotificationDigestItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "pickup_lat", nullable = false)
+    private double pickupLat;
+
+    @Column(name = "pickup_lon", nullable = false)
+    private double pickupLon;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public double getPickupLat() {
+        return pickupLat;
+    }
+
+    public double getPickupLon() {
+        return pickupLon;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.foodItems;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+/**
+ * A receiver's standing search: new items whose name contains one of the
+ * keywords, within radiusKm of the point and lasting at least
+ * minDaysToExpiry more days, are sent to the receiver as alerts.
+ */
+@Entity
+@Table(
+    name = "search_subscriptions",
+    indexes = {
+        @Index(name = "idx_search_subscriptions_receiver", columnList = "receiver_id"),
+    }
+)
+public class SearchSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "receiver_id", nullable = false)
+    private Long receiverId;
+
+    // Space-separated; any one of them matching is enough
+    @Column(name = "keywords", nullable = false, length = 255)
+    private String keywords;
+
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    @Column(name = "radius_km", nullable = false)
+    private Double radiusKm;
+
+    // Null matches any expiry date
+    @Column(name = "min_days_to_expiry")
+    private Integer minDaysToExpiry;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Date createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getReceiverId() {
+        return receiverId;
+    }
+
+    public void setReceiverId(Long receiverId) {
+        this.receiverId = receiverId;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(String keywords) {
+        this.keywords = keywords;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public Integer getMinDaysToExpiry() {
+        return minDaysToExpiry;
+    }
+
+    public void setMinDaysToExpiry(Integer minDaysToExpiry) {
+        this.minDaysToExpiry = minDaysToExpiry;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend.foodItems;
+
+import com.example.backend.users.User;
+import com.example.backend.users.UserRepository;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class SearchSubscriptionController {
+
+  private static final int MAX_PER_RECEIVER = 20;
+  private static final int MAX_KEYWORDS = 10;
+  private static final double DEFAULT_RADIUS_KM = 5;
+  private static final double MAX_RADIUS_KM = 50;
+
+  private final SearchSubscriptionRepository subscriptionRepository;
+  private final UserRepository userRepository;
+  private final SubscriptionPercolator percolator;
+
+  public SearchSubscriptionController(
+    SearchSubscriptionRepository subscriptionRepository,
+    UserRepository userRepository,
+    SubscriptionPercolator percolator
+  ) {
+    this.subscriptionRepository = subscriptionRepository;
+    this.userRepository = userRepository;
+    this.percolator = percolator;
+  }
+
+  // The point defaults to the receiver's home location
+  @PostMapping("/subscriptions")
+  public ResponseEntity<?> subscribe(@RequestBody SubscriptionRequestDTO request) {
+    if (request.getReceiverId() == null) {
+      return ResponseEntity.badRequest().body("receiverId is required");
+    }
+    Optional<User> receiver = userRepository.findById(request.getReceiverId());
+    if (receiver.isEmpty() || !"RECEIVER".equals(receiver.get().getRole())) {
+      return ResponseEntity.badRequest().body("receiverId must refer to a receiver");
+    }
+    int keywordCount = SubscriptionIndex.tokenize(request.getKeywords()).size();
+    if (keywordCount == 0 || keywordCount > MAX_KEYWORDS || request.getKeywords().length() > 255) {
+      return ResponseEntity.badRequest().body("keywords must contain 1 to " + MAX_KEYWORDS + " words");
+    }
+    double radiusKm = request.getRadiusKm() != null ? request.getRadiusKm() : DEFAULT_RADIUS_KM;
+    if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+      return ResponseEntity.badRequest().body("radiusKm must be between 0 and " + MAX_RADIUS_KM);
+    }
+    if (request.getMinDaysToExpiry() != null && request.getMinDaysToExpiry() < 0) {
+      return ResponseEntity.badRequest().body("minDaysToExpiry must not be negative");
+    }
+    Double latitude = request.getLatitude() != null ? request.getLatitude() : receiver.get().getHomeLat();
+    Double longitude = request.getLongitude() != null ? request.getLongitude() : receiver.get().getHomeLon();
+    if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+      return ResponseEntity.badRequest().body("A valid latitude and longitude are required");
+    }
+    if (subscriptionRepository.countByReceiverId(request.getReceiverId()) >= MAX_PER_RECEIVER) {
+      return ResponseEntity
+        .status(HttpStatus.CONFLICT)
+        .body("A receiver can have at most " + MAX_PER_RECEIVER + " subscriptions");
+    }
+
+    SearchSubscription subscription = new SearchSubscription();
+    subscription.setReceiverId(request.getReceiverId());
+    subscription.setKeywords(request.getKeywords().trim());
+    subscription.setLatitude(latitude);
+    subscription.setLongitude(longitude);
+    subscription.setRadiusKm(radiusKm);
+    subscription.setMinDaysToExpiry(request.getMinDaysToExpiry());
+    SearchSubscription saved = subscriptionRepository.save(subscription);
+    percolator.add(saved);
+    return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+  }
+
+  @GetMapping("/subscriptions/receiver/{receiverId}")
+  public List<SearchSubscription> getSubscriptions(@PathVariable Long receiverId) {
+    return subscriptionRepository.findByReceiverId(receiverId);
+  }
+
+  @DeleteMapping("/subscriptions/{id}")
+  public ResponseEntity<?> unsubscribe(@PathVariable Long id) {
+    if (!subscriptionRepository.existsById(id)) {
+      return ResponseEntity.notFound().build();
+    }
+    subscriptionRepository.deleteById(id);
+    percolator.remove(id);
+    return ResponseEntity.noContent().build();
+  }
+}
+
+/**
+ * Data Transfer Object for creating a saved search.
+ */
+class SubscriptionRequestDTO {
+
+  private Long receiverId;
+  private String keywords;
+  private Double radiusKm;
+  private Integer minDaysToExpiry;
+  private Double latitude;
+  private Double longitude;
+
+  public Long getReceiverId() {
+    return receiverId;
+  }
+
+  public void setReceiverId(Long receiverId) {
+    this.receiverId = receiverId;
+  }
+
+  public String getKeywords() {
+    return keywords;
+  }
+
+  public void setKeywords(String keywords) {
+    this.keywords = keywords;
+  }
+
+  public Double getRadiusKm() {
+    return radiusKm;
+  }
+
+  public void setRadiusKm(Double radiusKm) {
+    this.radiusKm = radiusKm;
+  }
+
+  public Integer getMinDaysToExpiry() {
+    return minDaysToExpiry;
+  }
+
+  public void setMinDaysToExpiry(Integer minDaysToExpiry) {
+    this.minDaysToExpiry = minDaysToExpiry;
+  }
+
+  public Double getLatitude() {
+    return latitude;
+  }
+
+  public void setLatitude(Double latitude) {
+    this.latitude = latitude;
+  }
+
+  public Double getLongitude() {
+    return longitude;
+  }
+
+  public void setLongitude(Double longitude) {
+    this.longitude = longitude;
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.foodItems;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SearchSubscriptionRepository extends JpaRepository<SearchSubscription, Long> {
+    List<SearchSubscription> findByReceiverId(Long receiverId);
+
+    long countByReceiverId(Long receiverId);
+}
@@ -0,0 +1,207 @@
+package com.example.backend.foodItems;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory percolator for standing searches: instead of running each
+ * subscription against new items, each new item is run against the
+ * subscriptions.
+ *
+ * Postings are keyed by (keyword token, grid cell). A subscription is posted
+ * under every cell its circle overlaps, so an item only has to look up its
+ * own cell for each token of its name. The cost of a match is the number of
+ * subscriptions in those postings, not the total number of subscriptions;
+ * each candidate is confirmed with an exact distance and expiry check.
+ *
+ * Reads are lock-free. Posting lists are copy-on-write arrays, which suits
+ * a workload of many matches and few subscription changes.
+ */
+public class SubscriptionIndex {
+
+    // ~11 km cells; a 5 km radius overlaps at most four of them
+    private static final double CELL_SIZE_DEG = 0.1;
+    private static final int ROWS = (int) Math.round(180 / CELL_SIZE_DEG);
+    private static final int COLUMNS = (int) Math.round(360 / CELL_SIZE_DEG);
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final Subscription[] EMPTY = new Subscription[0];
+
+    private final ConcurrentHashMap<String, Integer> tokenIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTokenId = new AtomicInteger();
+    private final ConcurrentHashMap<Long, Subscription[]> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, long[]> keysById = new ConcurrentHashMap<>();
+
+    public record Subscription(long id, long receiverId, double lat, double lon, double radiusKm,
+                               Integer minDaysToExpiry) {}
+
+    public synchronized void put(Subscription subscription, String keywords) {
+        remove(subscription.id());
+        long[] keys = keysFor(subscription, keywords);
+        for (long key : keys) {
+            postings.merge(key, new Subscription[] { subscription }, SubscriptionIndex::concat);
+        }
+        keysById.put(subscription.id(), keys);
+    }
+
+    // Bulk load: groups postings first so each list is written once
+    public synchronized void putAll(Collection<Subscription> subscriptions, Map<Long, String> keywordsById) {
+        Map<Long, List<Subscription>> grouped = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            remove(subscription.id());
+            long[] keys = keysFor(subscription, keywordsById.get(subscription.id()));
+            for (long key : keys) {
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(subscription);
+            }
+            keysById.put(subscription.id(), keys);
+        }
+        grouped.forEach((key, list) -> postings.merge(key, list.toArray(EMPTY), SubscriptionIndex::concat));
+    }
+
+    public synchronized boolean remove(long id) {
+        long[] keys = keysById.remove(id);
+        if (keys == null) {
+            return false;
+        }
+        for (long key : keys) {
+            postings.computeIfPresent(key, (k, list) -> {
+                Subscription[] kept = Arrays.stream(list).filter(s -> s.id() != id).toArray(Subscription[]::new);
+                return kept.length == 0 ? null : kept;
+            });
+        }
+        return true;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    /** Subscriptions matched by an item, each at most once. */
+    public List<Subscription> match(String name, double lat, double lon, LocalDate expiryDate, LocalDate today) {
+        List<Subscription> matches = new ArrayList<>();
+        Set<String> tokens = tokenize(name);
+        long cell = cell(row(lat), column(lon));
+        double kmPerLonDegree = KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        // Only needed when a subscription can be reached through two of the item's tokens
+        Set<Long> matched = tokens.size() > 1 ? new HashSet<>() : null;
+        for (String token : tokens) {
+            Integer tokenId = tokenIds.get(token);
+            if (tokenId == null) {
+                continue;
+            }
+            Subscription[] candidates = postings.get(key(tokenId, cell));
+            if (candidates == null) {
+                continue;
+            }
+            for (Subscription candidate : candidates) {
+                // Cheap bounding-box rejection before the exact haversine check
+                double radiusKm = candidate.radiusKm();
+                if (Math.abs(candidate.lat() - lat) * KM_PER_DEGREE > radiusKm
+                        || Math.abs(candidate.lon() - lon) * kmPerLonDegree > radiusKm) {
+                    continue;
+                }
+                if (candidate.minDaysToExpiry() != null
+                        && (expiryDate == null || expiryDate.isBefore(today.plusDays(candidate.minDaysToExpiry())))) {
+                    continue;
+                }
+                if (GeoUtils.distanceKm(lat, lon, candidate.lat(), candidate.lon()) > radiusKm) {
+                    continue;
+                }
+                if (matched == null || matched.add(candidate.id())) {
+                    matches.add(candidate);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Lower-cased words of two or more letters or digits, with simple plurals
+     * folded ("breads" to "bread", "berries" to "berry", "tomatoes" to
+     * "tomato"), so keywords and item names meet on the same form.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() < 2) {
+                continue;
+            }
+            tokens.add(singular(word));
+        }
+        return tokens;
+    }
+
+    private static String singular(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private long[] keysFor(Subscription subscription, String keywords) {
+        Set<String> tokens = tokenize(keywords);
+        double latSpan = subscription.radiusKm() / KM_PER_DEGREE;
+        double lonSpan = subscription.radiusKm()
+                / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(subscription.lat())), 0.01));
+        int minRow = row(subscription.lat() - latSpan);
+        int maxRow = row(subscription.lat() + latSpan);
+        int minCol = column(subscription.lon() - lonSpan);
+        int maxCol = column(subscription.lon() + lonSpan);
+
+        long[] keys = new long[tokens.size() * (maxRow - minRow + 1) * (maxCol - minCol + 1)];
+        int i = 0;
+        for (String token : tokens) {
+            int tokenId = tokenIds.computeIfAbsent(token, t -> nextTokenId.getAndIncrement());
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    keys[i++] = key(tokenId, cell(r, c));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static long key(int tokenId, long cell) {
+        return ((long) tokenId << 32) | cell;
+    }
+
+    private static long cell(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    private static int row(double lat) {
+        return Math.min(Math.max((int) Math.floor((lat + 90) / CELL_SIZE_DEG), 0), ROWS - 1);
+    }
+
+    private static int column(double lon) {
+        return Math.min(Math.max((int) Math.floor((lon + 180) / CELL_SIZE_DEG), 0), COLUMNS - 1);
+    }
+
+    private static Subscription[] concat(Subscription[] existing, Subscription[] added) {
+        Subscription[] merged = Arrays.copyOf(existing, existing.length + added.length);
+        System.arraycopy(added, 0, merged, existing.length, added.length);
+        return merged;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend.foodItems;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.example.backend.outbox.OutboxEvent;
+import com.example.backend.outbox.OutboxHandler;
+import com.example.backend.outbox.OutboxMessage;
+import com.example.backend.users.User;
+import com.example.backend.users.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Percolates new items through the saved searches and queues an alert for
+ * each matching receiver. Alerts go through the digest coalescer, which
+ * also drops items the receiver already heard about.
+ */
+@Component
+public class SubscriptionOutboxHandler implements OutboxHandler {
+
+    private final FoodItemRepository foodItemRepository;
+    private final SubscriptionPercolator percolator;
+    private final UserRepository userRepository;
+    private final NotificationCoalescer notificationCoalescer;
+    private final ObjectMapper objectMapper;
+
+    public SubscriptionOutboxHandler(FoodItemRepository foodItemRepository,
+                                     SubscriptionPercolator percolator,
+                                     UserRepository userRepository,
+                                     NotificationCoalescer notificationCoalescer,
+                                     ObjectMapper objectMapper) {
+        this.foodItemRepository = foodItemRepository;
+        this.percolator = percolator;
+        this.userRepository = userRepository;
+        this.notificationCoalescer = notificationCoalescer;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getDestination() {
+        return OutboxEvent.SUBSCRIPTION_MATCH;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        // Matching before the index is loaded would silently miss subscribers
+        if (!percolator.isLoaded()) {
+            throw new IllegalStateException("Subscription index is still loading");
+        }
+        for (OutboxMessage message : messages) {
+            List<FoodItems> items = foodItemRepository.findAllById(
+                    FoodItemSearchOutboxHandler.readIds(objectMapper, message));
+            Map<Long, List<FoodItems>> matches = percolator.match(items);
+            if (matches.isEmpty()) {
+                continue;
+            }
+            Map<Long, String> emails = new HashMap<>();
+            for (User receiver : userRepository.findAllById(matches.keySet())) {
+                emails.put(receiver.getId(), receiver.getEmail());
+            }
+            matches.forEach((receiverId, matched) -> {
+                String email = emails.get(receiverId);
+                if (email == null) {
+                    return;
+                }
+                for (FoodItems item : matched) {
+                    notificationCoalescer.add(email, new NotificationCoalescer.Notice(
+                            List.of(item.getId()),
+                            List.of(item.getName()),
+                            item.getPickupLatitude().doubleValue(),
+                            item.getPickupLongitude().doubleValue()));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.backend.foodItems;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+
+/**
+ * Keeps every saved search in a {@link SubscriptionIndex} and matches new
+ * food items against them. Loading the index is a readiness-gating startup
+ * task. Afterwards the subscription endpoints update it and announce each
+ * change on a NOTIFY channel, so every node reloads that subscription
+ * ({@link ItemFeedListener} receives them). A periodic rebuild catches
+ * changes announced while a node was not listening.
+ */
+@Component
+public class SubscriptionPercolator implements StartupTask {
+
+    public static final String CHANNEL = "search_subscriptions";
+
+    private static final int LOAD_BATCH = 10000;
+    private static final String SELECT_COLUMNS =
+            "SELECT id, receiver_id, keywords, latitude, longitude, radius_km, min_days_to_expiry " +
+            "FROM search_subscriptions ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile SubscriptionIndex index = new SubscriptionIndex();
+    // Index being rebuilt in the background; local changes go to both
+    private SubscriptionIndex rebuilding;
+    private volatile boolean loaded = false;
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionPercolator.class);
+
+    public SubscriptionPercolator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return "subscription-percolator";
+    }
+
+    @Override
+    public boolean isRequiredForReadiness() {
+        return true;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        context.setTotal(jdbcTemplate.queryForObject("SELECT count(*) FROM search_subscriptions", Long.class));
+        load(index, context);
+        loaded = !context.isCancelled();
+        log.info("Subscription percolator loaded with {} subscriptions", index.size());
+    }
+
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // Every 5 minutes
+    public void rebuild() {
+        if (!loaded) {
+            return;
+        }
+        SubscriptionIndex fresh = new SubscriptionIndex();
+        synchronized (this) {
+            rebuilding = fresh;
+        }
+        try {
+            load(fresh, new StartupTaskContext());
+        } catch (RuntimeException e) {
+            // A partial index would miss subscriptions; keep serving from the old one
+            synchronized (this) {
+                rebuilding = null;
+            }
+            log.warn("Subscription index rebuild failed; keeping the current index", e);
+            return;
+        }
+        synchronized (this) {
+            index = fresh;
+            rebuilding = null;
+        }
+    }
+
+    // Keyset pages keep memory flat however many subscriptions there are
+    private void load(SubscriptionIndex target, StartupTaskContext context) {
+        long afterId = 0;
+        while (!context.isCancelled()) {
+            List<SubscriptionIndex.Subscription> page = new ArrayList<>(LOAD_BATCH);
+            Map<Long, String> keywords = new HashMap<>();
+            jdbcTemplate.query(SELECT_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?",
+                    rs -> {
+                        page.add(toIndexed(rs));
+                        keywords.put(rs.getLong("id"), rs.getString("keywords"));
+                    },
+                    afterId, LOAD_BATCH);
+            if (page.isEmpty()) {
+                return;
+            }
+            target.putAll(page, keywords);
+            context.advance(page.size());
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Call after the change has committed
+    public void add(SearchSubscription subscription) {
+        put(toIndexed(subscription), subscription.getKeywords());
+        announce(subscription.getId());
+    }
+
+    // Call after the change has committed
+    public void remove(Long id) {
+        delete(id);
+        announce(id);
+    }
+
+    // A change announced by any node, this one included: the subscription is reloaded as stored now
+    public void refresh(long id) {
+        List<SubscriptionIndex.Subscription> found = new ArrayList<>(1);
+        Map<Long, String> keywords = new HashMap<>();
+        jdbcTemplate.query(SELECT_COLUMNS + "WHERE id = ?",
+                rs -> {
+                    found.add(toIndexed(rs));
+                    keywords.put(rs.getLong("id"), rs.getString("keywords"));
+                },
+                id);
+        if (found.isEmpty()) {
+            delete(id);
+        } else {
+            put(found.get(0), keywords.get(id));
+        }
+    }
+
+    private synchronized void put(SubscriptionIndex.Subscription subscription, String keywords) {
+        index.put(subscription, keywords);
+        if (rebuilding != null) {
+            rebuilding.put(subscription, keywords);
+        }
+    }
+
+    private synchronized void delete(long id) {
+        index.remove(id);
+        if (rebuilding != null) {
+            rebuilding.remove(id);
+        }
+    }
+
+    // Sent on its own, outside any transaction, so it goes out at once
+    private void announce(long id) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {}, CHANNEL, Long.toString(id));
+        } catch (DataAccessException e) {
+            log.warn("Could not announce change to subscription {}; other nodes pick it up on their next rebuild", id, e);
+        }
+    }
+
+    // Receiver id to the items that matched at least one of their subscriptions
+    public Map<Long, List<FoodItems>> match(List<FoodItems> items) {
+        Map<Long, List<FoodItems>> byReceiver = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        SubscriptionIndex current = index;
+        for (FoodItems item : items) {
+            if (item.getPickupLatitude() == null || item.getPickupLongitude() == null) {
+                continue;
+            }
+            List<SubscriptionIndex.Subscription> matches = current.match(
+                    item.getName(),
+                    item.getPickupLatitude().doubleValue(),
+                    item.getPickupLongitude().doubleValue(),
+                    DateUtils.toLocalDate(item.getExpiryDate()),
+                    today);
+            for (SubscriptionIndex.Subscription match : matches) {
+                List<FoodItems> matched = byReceiver.computeIfAbsent(match.receiverId(), r -> new ArrayList<>());
+                // One receiver may have several subscriptions hit by the same item
+                if (matched.isEmpty() || matched.get(matched.size() - 1) != item) {
+                    matched.add(item);
+                }
+            }
+        }
+        return byReceiver;
+    }
+
+    private static SubscriptionIndex.Subscription toIndexed(SearchSubscription subscription) {
+        return new SubscriptionIndex.Subscription(
+                subscription.getId(),
+                subscription.getReceiverId(),
+                subscription.getLatitude(),
+                subscription.getLongitude(),
+                subscription.getRadiusKm(),
+                subscription.getMinDaysToExpiry());
+    }
+
+    private static SubscriptionIndex.Subscription toIndexed(ResultSet rs) throws SQLException {
+        return new SubscriptionIndex.Subscription(
+                rs.getLong("id"),
+                rs.getLong("receiver_id"),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getDouble("radius_km"),
+                rs.getObject("min_days_to_expiry", Integer.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.backend.outbox;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+
+/**
+ * A side effect recorded in the same transaction as the change that caused
+ * it, waiting for {@link OutboxRelay} to deliver it. Rows are deleted once
+ * their handler succeeds; rows that run out of attempts are dead-lettered
+ * and stay until an admin requeues them. Only the table definition lives
+ * here; rows are written and read with JDBC.
+ */
+@Entity
+@Table(
+    name = "outbox_events",
+    indexes = {
+        @Index(name = "idx_outbox_events_next_attempt", columnList = "next_attempt_at, id"),
+    }
+)
+public class OutboxEvent {
+
+    // Re-sync the listed food items from PostgreSQL into the search index
+    public static final String SEARCH_SYNC = "SEARCH_SYNC";
+    // Tell nearby receivers about newly donated items
+    public static final String NEW_ITEMS_EMAIL = "NEW_ITEMS_EMAIL";
+    // Match new items against receivers' saved searches
+    public static final String SUBSCRIPTION_MATCH = "SUBSCRIPTION_MATCH";
+    // Announce quantity changes to the live item feed
+    public static final String ITEM_FEED = "ITEM_FEED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "destination", nullable = false, length = 40)
+    private String destination;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    // Set when the row ran out of attempts; next_attempt_at is then 'infinity'
+    @Column(name = "dead_lettered_at")
+    private Date deadLetteredAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Date getDeadLetteredAt() {
+        return deadLetteredAt;
+    }
+}
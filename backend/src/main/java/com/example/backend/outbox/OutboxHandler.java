@@ -0,0 +1,15 @@
+package com.example.backend.outbox;
+
+import java.util.List;
+
+/**
+ * Delivers outbox messages for one destination. Delivery is at least once:
+ * when a batch throws, its messages are retried one at a time, so handlers
+ * must be idempotent.
+ */
+public interface OutboxHandler {
+
+    String getDestination();
+
+    void handle(List<OutboxMessage> messages);
+}
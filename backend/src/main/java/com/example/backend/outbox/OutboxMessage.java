@@ -0,0 +1,5 @@
+package com.example.backend.outbox;
+
+import java.util.Date;
+
+public record OutboxMessage(long id, String destination, String payload, Date createdAt, int attempts) {}
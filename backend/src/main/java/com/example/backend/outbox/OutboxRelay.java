@@ -0,0 +1,247 @@
+package com.example.backend.outbox;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Drains outbox_events to the {@link OutboxHandler} for each destination.
+ *
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED, so several nodes can
+ * relay at once without handing out the same row twice. Rows are deleted
+ * after their handler returns. When a batch throws, its messages are handed
+ * over one at a time, so a single bad message cannot hold back the rest;
+ * each message that still fails gets its own growing delay. After
+ * max-attempts failures a row is dead-lettered: it stays in the table, out
+ * of the relay's way, until an admin requeues it. A crash between handling
+ * and commit means the batch is delivered again (at least once).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+    private static final int MAX_BATCHES_PER_TICK = 20;
+    // Stop splitting a failed batch when this many messages in a row fail alone: the destination is down
+    private static final int MAX_ISOLATED_FAILURES = 3;
+    private static final int MAX_DEAD_LETTERS_LISTED = 1000;
+
+    private static final String CLAIM_SQL =
+            "SELECT id, destination, payload, created_at, attempts FROM outbox_events " +
+            "WHERE next_attempt_at <= now() AND dead_lettered_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id = ANY (?)";
+
+    // Dead-lettered rows move to next_attempt_at = 'infinity' so the claim index never walks them
+    private static final String RETRY_SQL =
+            "UPDATE outbox_events SET attempts = attempts + 1, last_error = ?, " +
+            "next_attempt_at = CASE WHEN attempts + 1 >= ? THEN 'infinity' " +
+            "ELSE now() + make_interval(secs => LEAST(power(2, attempts + 1), ?)) END, " +
+            "dead_lettered_at = CASE WHEN attempts + 1 >= ? THEN now() END " +
+            "WHERE id = ANY (?) RETURNING dead_lettered_at IS NOT NULL AS dead";
+
+    private static final String DEAD_LETTERS_SQL =
+            "SELECT id, destination, payload, attempts, last_error, dead_lettered_at FROM outbox_events " +
+            "WHERE dead_lettered_at IS NOT NULL ORDER BY id LIMIT ?";
+
+    private static final String REQUEUE_SQL =
+            "UPDATE outbox_events SET attempts = 0, dead_lettered_at = NULL, next_attempt_at = now() " +
+            "WHERE dead_lettered_at IS NOT NULL";
+
+    private static final String BACKLOG_SQL =
+            "SELECT count(*) AS pending, " +
+            "COALESCE(EXTRACT(EPOCH FROM now() - min(created_at)), 0) AS oldest_seconds FROM outbox_events " +
+            "WHERE dead_lettered_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxHandler> handlers = new HashMap<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestSeconds = new AtomicLong();
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       List<OutboxHandler> handlers,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.batch-size:100}") int batchSize,
+                       @Value("${outbox.max-attempts:10}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (OutboxHandler handler : handlers) {
+            this.handlers.put(handler.getDestination(), handler);
+        }
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("outbox.pending", pending);
+        meterRegistry.gauge("outbox.lag.seconds", oldestSeconds);
+    }
+
+    @Scheduled(fixedDelay = 500)
+    public void relay() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_TICK; i++) {
+                Integer claimed = transactionTemplate.execute(status -> relayBatch());
+                if (claimed == null || claimed < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed; retrying on the next tick", e);
+        }
+    }
+
+    // The backlog query scans the table, so it runs less often than the relay
+    @Scheduled(fixedDelay = 10000)
+    public void measureBacklog() {
+        jdbcTemplate.query(BACKLOG_SQL, rs -> {
+            pending.set(rs.getLong("pending"));
+            oldestSeconds.set((long) rs.getDouble("oldest_seconds"));
+        });
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> claimed = jdbcTemplate.query(
+                CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("destination"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at"),
+                        rs.getInt("attempts")),
+                batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxMessage>> byDestination = new LinkedHashMap<>();
+        for (OutboxMessage message : claimed) {
+            byDestination.computeIfAbsent(message.destination(), d -> new ArrayList<>()).add(message);
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        byDestination.forEach((destination, messages) -> {
+            OutboxHandler handler = handlers.get(destination);
+            if (handler == null) {
+                fail(destination, messages, new IllegalStateException("No outbox handler for " + destination));
+                return;
+            }
+            try {
+                handle(handler, messages);
+                delivered(destination, messages, delivered);
+            } catch (RuntimeException e) {
+                if (messages.size() == 1) {
+                    fail(destination, messages, e);
+                } else {
+                    log.warn("Outbox delivery of {} {} messages failed; retrying them one at a time",
+                            messages.size(), destination, e);
+                    deliverOneByOne(destination, handler, messages, delivered);
+                }
+            }
+        });
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.update(DELETE_SQL, (Object) delivered.toArray(new Long[0]));
+        }
+        return claimed.size();
+    }
+
+    private void deliverOneByOne(String destination, OutboxHandler handler,
+                                 List<OutboxMessage> messages, List<Long> delivered) {
+        int failuresInRow = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            List<OutboxMessage> single = List.of(messages.get(i));
+            try {
+                handle(handler, single);
+                delivered(destination, single, delivered);
+                failuresInRow = 0;
+            } catch (RuntimeException e) {
+                fail(destination, single, e);
+                if (++failuresInRow >= MAX_ISOLATED_FAILURES) {
+                    // Not one bad message but the destination itself; the rest wait for the next attempt
+                    fail(destination, messages.subList(i + 1, messages.size()), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    // A savepoint per call, so a handler's failed SQL does not abort the relay transaction
+    private void handle(OutboxHandler handler, List<OutboxMessage> messages) {
+        jdbcTemplate.execute("SAVEPOINT outbox_delivery");
+        try {
+            handler.handle(messages);
+        } catch (RuntimeException e) {
+            jdbcTemplate.execute("ROLLBACK TO SAVEPOINT outbox_delivery");
+            throw e;
+        }
+        jdbcTemplate.execute("RELEASE SAVEPOINT outbox_delivery");
+    }
+
+    private void delivered(String destination, List<OutboxMessage> messages, List<Long> delivered) {
+        long now = System.currentTimeMillis();
+        for (OutboxMessage message : messages) {
+            delivered.add(message.id());
+            meterRegistry.timer("outbox.delivery.lag", "destination", destination)
+                    .record(now - message.createdAt().getTime(), TimeUnit.MILLISECONDS);
+        }
+        meterRegistry.counter("outbox.delivered", "destination", destination).increment(messages.size());
+    }
+
+    private void fail(String destination, List<OutboxMessage> messages, RuntimeException e) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (messages.size() == 1) {
+            log.warn("Outbox delivery of {} message {} failed", destination, messages.get(0).id(), e);
+        }
+        meterRegistry.counter("outbox.failed", "destination", destination).increment(messages.size());
+        List<Boolean> dead = jdbcTemplate.query(RETRY_SQL, (rs, rowNum) -> rs.getBoolean("dead"),
+                String.valueOf(e.getMessage()), maxAttempts, MAX_BACKOFF_SECONDS, maxAttempts, ids(messages));
+        long deadLettered = dead.stream().filter(Boolean::booleanValue).count();
+        if (deadLettered > 0) {
+            log.error("Dead-lettered {} {} outbox messages after {} attempts", deadLettered, destination, maxAttempts);
+            meterRegistry.counter("outbox.dead_lettered", "destination", destination).increment(deadLettered);
+        }
+    }
+
+    public List<DeadLetter> getDeadLetters() {
+        return jdbcTemplate.query(DEAD_LETTERS_SQL, (rs, rowNum) -> new DeadLetter(
+                rs.getLong("id"),
+                rs.getString("destination"),
+                rs.getString("payload"),
+                rs.getInt("attempts"),
+                rs.getString("last_error"),
+                rs.getTimestamp("dead_lettered_at")), MAX_DEAD_LETTERS_LISTED);
+    }
+
+    // Gives every dead-lettered row a fresh set of attempts; returns how many were requeued
+    public int requeueDeadLetters() {
+        return jdbcTemplate.update(REQUEUE_SQL);
+    }
+
+    public record DeadLetter(long id, String destination, String payload, int attempts, String lastError,
+                             Date deadLetteredAt) {}
+
+    private static Long[] ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+    }
+}
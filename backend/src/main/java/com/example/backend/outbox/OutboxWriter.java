@@ -0,0 +1,43 @@
+package com.example.backend.outbox;
+
+import java.sql.Timestamp;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Appends outbox rows. Must run inside the transaction of the change that
+ * the row describes, so both commit or neither does.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (destination, payload, created_at, attempts, next_attempt_at) " +
+            "VALUES (?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String destination, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update(INSERT_SQL, destination, json, now, now);
+    }
+}
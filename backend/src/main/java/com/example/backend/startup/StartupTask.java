@@ -0,0 +1,15 @@
+package com.example.backend.startup;
+
+/**
+ * Maintenance or warm-up work that runs in the background once the web server
+ * is up. Tasks marked as required keep the readiness probe down until they
+ * have completed; all others run without blocking traffic.
+ */
+public interface StartupTask {
+
+    String getName();
+
+    boolean isRequiredForReadiness();
+
+    void run(StartupTaskContext context) throws Exception;
+}
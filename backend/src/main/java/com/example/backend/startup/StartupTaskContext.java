@@ -0,0 +1,39 @@
+package com.example.backend.startup;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and cancellation handle passed to a running {@link StartupTask}.
+ * Tasks should call {@link #isCancelled()} between units of work and stop early when it is set.
+ */
+public class StartupTaskContext {
+
+    private final AtomicLong processed = new AtomicLong();
+    private volatile long total = -1;
+    private volatile boolean cancelled = false;
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void advance(long count) {
+        processed.addAndGet(count);
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    // -1 when the task cannot tell up front how much work there is
+    public long getTotal() {
+        return total;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
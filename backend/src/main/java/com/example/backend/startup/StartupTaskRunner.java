@@ -0,0 +1,154 @@
+package com.example.backend.startup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs every {@link StartupTask} bean on its own virtual thread after the
+ * application is ready, so slow maintenance never delays the web server.
+ * A required task that fails or is cancelled is run again with exponential
+ * backoff, since readiness stays down until it completes; optional tasks
+ * run once.
+ */
+@Component
+public class StartupTaskRunner {
+
+    private final Map<String, TrackedTask> tasks = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long retryInitialMillis;
+    private final long retryMaxMillis;
+    private volatile boolean started = false;
+    private volatile boolean stopping = false;
+    private static final Logger log = LoggerFactory.getLogger(StartupTaskRunner.class);
+
+    public StartupTaskRunner(
+            List<StartupTask> startupTasks,
+            @Value("${startup-tasks.retry-initial-ms:5000}") long retryInitialMillis,
+            @Value("${startup-tasks.retry-max-ms:300000}") long retryMaxMillis) {
+        this.retryInitialMillis = retryInitialMillis;
+        this.retryMaxMillis = retryMaxMillis;
+        for (StartupTask task : startupTasks) {
+            tasks.put(task.getName(), new TrackedTask(task));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (TrackedTask task : tasks.values()) {
+            executor.submit(task::execute);
+        }
+        started = true;
+    }
+
+    // True once every task required for readiness has completed
+    public boolean isReady() {
+        if (!started) {
+            return false;
+        }
+        return tasks.values().stream()
+                .filter(task -> task.task.isRequiredForReadiness())
+                .allMatch(task -> task.state == StartupTaskStatus.State.COMPLETED);
+    }
+
+    public List<StartupTaskStatus> getStatuses() {
+        List<StartupTaskStatus> statuses = new ArrayList<>();
+        for (TrackedTask task : tasks.values()) {
+            statuses.add(task.snapshot());
+        }
+        return statuses;
+    }
+
+    // A required task is retried after cancelling, so this restarts it
+    public boolean cancel(String name) {
+        TrackedTask task = tasks.get(name);
+        if (task == null) {
+            return false;
+        }
+        task.context.cancel();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        tasks.values().forEach(task -> task.context.cancel());
+        executor.shutdownNow();
+    }
+
+    private final class TrackedTask {
+        private final StartupTask task;
+        // Replaced for each attempt, so a retry starts uncancelled with fresh progress
+        private volatile StartupTaskContext context = new StartupTaskContext();
+        private volatile StartupTaskStatus.State state = StartupTaskStatus.State.PENDING;
+        private volatile int attempts;
+        private volatile Date startedAt;
+        private volatile Date finishedAt;
+        private volatile Date nextAttemptAt;
+        private volatile String error;
+
+        private TrackedTask(StartupTask task) {
+            this.task = task;
+        }
+
+        private void execute() {
+            long backoff = retryInitialMillis;
+            while (true) {
+                attempt();
+                if (state == StartupTaskStatus.State.COMPLETED || !task.isRequiredForReadiness() || stopping) {
+                    return;
+                }
+                nextAttemptAt = new Date(System.currentTimeMillis() + backoff);
+                log.warn("Required startup task {} {}; retrying in {} ms", task.getName(), state, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    // Shutting down
+                    return;
+                }
+                backoff = Math.min(backoff * 2, retryMaxMillis);
+                context = new StartupTaskContext();
+            }
+        }
+
+        private void attempt() {
+            state = StartupTaskStatus.State.RUNNING;
+            attempts++;
+            startedAt = new Date();
+            finishedAt = null;
+            nextAttemptAt = null;
+            error = null;
+            try {
+                task.run(context);
+                state = context.isCancelled()
+                        ? StartupTaskStatus.State.CANCELLED
+                        : StartupTaskStatus.State.COMPLETED;
+                log.info("Startup task {} {} after {} items", task.getName(), state, context.getProcessed());
+            } catch (Exception e) {
+                state = StartupTaskStatus.State.FAILED;
+                error = e.getMessage();
+                log.error("Startup task {} failed", task.getName(), e);
+            } finally {
+                finishedAt = new Date();
+            }
+        }
+
+        private StartupTaskStatus snapshot() {
+            return new StartupTaskStatus(task.getName(), task.isRequiredForReadiness(), state, attempts,
+                    context.getProcessed(), context.getTotal(), startedAt, finishedAt, nextAttemptAt, error);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.startup;
+
+import java.util.Date;
+
+/**
+ * Snapshot of a startup task, as returned by /admin/startup-tasks.
+ */
+public class StartupTaskStatus {
+
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String name;
+    private final boolean requiredForReadiness;
+    private final State state;
+    private final int attempts;
+    private final long processed;
+    private final long total;
+    private final Date startedAt;
+    private final Date finishedAt;
+    // Set while a failed or cancelled required task waits to be retried
+    private final Date nextAttemptAt;
+    private final String error;
+
+    public StartupTaskStatus(String name, boolean requiredForReadiness, State state, int attempts,
+                             long processed, long total, Date startedAt, Date finishedAt,
+                             Date nextAttemptAt, String error) {
+        this.name = name;
+        this.requiredForReadiness = requiredForReadiness;
+        this.state = state;
+        this.attempts = attempts;
+        this.processed = processed;
+        this.total = total;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.nextAttemptAt = nextAttemptAt;
+        this.error = error;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRequiredForReadiness() {
+        return requiredForReadiness;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
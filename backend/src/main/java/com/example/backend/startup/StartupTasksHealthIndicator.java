@@ -0,0 +1,26 @@
+package com.example.backend.startup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the readiness group OUT_OF_SERVICE until the required startup tasks
+ * have finished. Registered as "startupTasks" in application.properties.
+ */
+@Component
+public class StartupTasksHealthIndicator implements HealthIndicator {
+
+    private final StartupTaskRunner runner;
+
+    public StartupTasksHealthIndicator(StartupTaskRunner runner) {
+        this.runner = runner;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = runner.isReady() ? Health.up() : Health.outOfService();
+        runner.getStatuses().forEach(status -> builder.withDetail(status.getName(), status.getState()));
+        return builder.build();
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.backend.users;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.backend.Matchmaking.PickupEventProjector;
+import com.example.backend.foodItems.EmailNotificationService;
 import com.example.backend.foodItems.ExpiredFoodItemCleaner;
+import com.example.backend.outbox.OutboxRelay;
+import com.example.backend.startup.StartupTaskRunner;
+import com.example.backend.startup.StartupTaskStatus;
 
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
     private final ExpiredFoodItemCleaner cleaner;
+    private final StartupTaskRunner startupTaskRunner;
+    private final List<PickupEventProjector> pickupProjectors;
+    private final EmailNotificationService emailNotificationService;
+    private final OutboxRelay outboxRelay;
     
-    public AdminController(ExpiredFoodItemCleaner cleaner) {
+    public AdminController(ExpiredFoodItemCleaner cleaner,
+                           StartupTaskRunner startupTaskRunner,
+                           List<PickupEventProjector> pickupProjectors,
+                           EmailNotificationService emailNotificationService,
+                           OutboxRelay outboxRelay) {
         this.cleaner = cleaner;
+        this.startupTaskRunner = startupTaskRunner;
+        this.pickupProjectors = pickupProjectors;
+        this.emailNotificationService = emailNotificationService;
+        this.outboxRelay = outboxRelay;
     }
     
     @PostMapping("/remove-expired-items")
@@ -21,4 +43,57 @@ public class AdminController {
         cleaner.manuallyRemoveExpiredItems();
         return ResponseEntity.ok("Expired items cleanup triggered successfully");
     }
+
+    @GetMapping("/startup-tasks")
+    public List<StartupTaskStatus> getStartupTasks() {
+        return startupTaskRunner.getStatuses();
+    }
+
+    @PostMapping("/startup-tasks/{name}/cancel")
+    public ResponseEntity<String> cancelStartupTask(@PathVariable String name) {
+        if (!startupTaskRunner.cancel(name)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok("Cancellation requested for " + name);
+    }
+
+    @GetMapping("/pickup-projections")
+    public List<Map<String, Object>> getPickupProjections() {
+        return pickupProjectors.stream()
+                .map(p -> Map.<String, Object>of("name", p.getName(), "lastEventId", p.getOffset()))
+                .toList();
+    }
+
+    @PostMapping("/pickup-projections/{name}/rebuild")
+    public ResponseEntity<String> rebuildPickupProjection(@PathVariable String name) {
+        for (PickupEventProjector projector : pickupProjectors) {
+            if (projector.getName().equals(name)) {
+                projector.rebuild();
+                return ResponseEntity.ok("Rebuild started for " + name);
+            }
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/email-dead-letters")
+    public List<EmailNotificationService.DeadLetter> getEmailDeadLetters() {
+        return emailNotificationService.getDeadLetters();
+    }
+
+    @PostMapping("/email-dead-letters/requeue")
+    public ResponseEntity<String> requeueEmailDeadLetters() {
+        int requeued = emailNotificationService.requeueDeadLetters();
+        return ResponseEntity.ok("Requeued " + requeued + " emails");
+    }
+
+    @GetMapping("/outbox-dead-letters")
+    public List<OutboxRelay.DeadLetter> getOutboxDeadLetters() {
+        return outboxRelay.getDeadLetters();
+    }
+
+    @PostMapping("/outbox-dead-letters/requeue")
+    public ResponseEntity<String> requeueOutboxDeadLetters() {
+        int requeued = outboxRelay.requeueDeadLetters();
+        return ResponseEntity.ok("Requeued " + requeued + " outbox messages");
+    }
 }
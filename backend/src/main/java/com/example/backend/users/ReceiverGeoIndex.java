@@ -0,0 +1,97 @@
+package com.example.backend.users;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.backend.foodItems.GeoCellIndex;
+import com.example.backend.startup.StartupTask;
+import com.example.backend.startup.StartupTaskContext;
+
+/**
+ * In-process spatial index of receiver home locations, used to pick the
+ * receivers to notify about new donations without loading every receiver.
+ * Kept current by profile updates and registration on this node, and
+ * resynced from the users table every few minutes for changes made on others.
+ */
+@Component
+public class ReceiverGeoIndex implements StartupTask {
+
+    // ~5.5 km cells, sized for the notification radius
+    private static final double CELL_SIZE_DEG = 0.05;
+
+    private final UserRepository userRepository;
+    private final GeoCellIndex<Receiver> index = new GeoCellIndex<>(CELL_SIZE_DEG);
+    private volatile boolean loaded = false;
+    private static final Logger log = LoggerFactory.getLogger(ReceiverGeoIndex.class);
+
+    public ReceiverGeoIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public record Receiver(long id, String email) {}
+
+    @Override
+    public String getName() {
+        return "receiver-geo-index";
+    }
+
+    @Override
+    public boolean isRequiredForReadiness() {
+        return true;
+    }
+
+    @Override
+    public void run(StartupTaskContext context) {
+        List<User> receivers = userRepository.findLocatedByRole("RECEIVER");
+        context.setTotal(receivers.size());
+        for (User receiver : receivers) {
+            if (context.isCancelled()) {
+                return;
+            }
+            update(receiver);
+            context.advance(1);
+        }
+        loaded = true;
+        log.info("Receiver geo index loaded with {} receivers", index.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Adds, moves or drops the user depending on their current role and home location
+    public void update(User user) {
+        if (user.getId() == null) {
+            return;
+        }
+        if (!"RECEIVER".equals(user.getRole()) || user.getHomeLat() == null || user.getHomeLon() == null) {
+            index.remove(user.getId());
+            return;
+        }
+        index.put(user.getId(), user.getHomeLat(), user.getHomeLon(), new Receiver(user.getId(), user.getEmail()));
+    }
+
+    public List<Receiver> within(double lat, double lon, double radiusKm) {
+        return index.within(lat, lon, radiusKm);
+    }
+
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // Every 5 minutes
+    public void resync() {
+        if (!loaded) {
+            return;
+        }
+        // Snapshot first so receivers added while the query runs are not dropped
+        Set<Long> stale = new HashSet<>(index.ids());
+        for (User receiver : userRepository.findLocatedByRole("RECEIVER")) {
+            update(receiver);
+            stale.remove(receiver.getId());
+        }
+        stale.forEach(index::remove);
+    }
+}
@@ -15,9 +15,11 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
   private final UserRepository userRepository;
+  private final ReceiverGeoIndex receiverGeoIndex;
 
-  public UserController(UserRepository userRepository) {
+  public UserController(UserRepository userRepository, ReceiverGeoIndex receiverGeoIndex) {
     this.userRepository = userRepository;
+    this.receiverGeoIndex = receiverGeoIndex;
   }
 
   @GetMapping("/users")
@@ -94,6 +96,7 @@ public class UserController {
 
       // Save the updated user
       User savedUser = userRepository.save(existingUser);
+      receiverGeoIndex.update(savedUser);
 
       // Remove sensitive information before returning
       savedUser.setPasswordHash(null);
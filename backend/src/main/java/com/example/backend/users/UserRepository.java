@@ -3,8 +3,13 @@ package com.example.backend.users;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     public User findByEmail(String email);
     public List<User> findByRole(String role);
+
+    @Query("SELECT u FROM User u WHERE u.role = :role AND u.homeLat IS NOT NULL AND u.homeLon IS NOT NULL")
+    public List<User> findLocatedByRole(@Param("role") String role);
 }
@@ -8,17 +8,20 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReceiverGeoIndex receiverGeoIndex;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       ReceiverGeoIndex receiverGeoIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.receiverGeoIndex = receiverGeoIndex;
     }
 
     public void register(User user) {
         // Encode the password
         String hashedPassword = passwordEncoder.encode(user.getPasswordHash());
         user.setPasswordHash(hashedPassword);
-        userRepository.save(user);
+        receiverGeoIndex.update(userRepository.save(user));
     }
 
     public boolean login(String email, String rawPassword) {
@@ -0,0 +1,86 @@
+-- Converts food_items into a table partitioned by expiry_date, one partition per day.
+-- Expired inventory is then removed by detaching and dropping whole partitions
+-- (FoodItemPartitionManager) instead of row-level DELETEs.
+--
+-- Run with the application stopped, then start it with
+--   food-items.partitioning.enabled=true
+--   spring.jpa.hibernate.ddl-auto=none
+-- Hibernate's schema update cannot manage partitioned tables and would try to
+-- re-add the photo foreign key, which Postgres does not allow against a
+-- partitioned table whose primary key includes expiry_date.
+
+BEGIN;
+
+-- 1. Detach the id sequence from the old table so it survives the swap.
+--    Identity column: DROP IDENTITY removes its sequence, which is recreated below.
+--    bigserial column: the sequence is kept and only disowned.
+ALTER TABLE food_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER SEQUENCE IF EXISTS food_items_id_seq OWNED BY NONE;
+ALTER TABLE food_items ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS food_items_id_seq;
+ALTER SEQUENCE food_items_id_seq INCREMENT BY 50;
+SELECT setval('food_items_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM food_items));
+
+-- 2. Photos can no longer reference food_items(id) alone.
+DO $$
+DECLARE
+  fk record;
+BEGIN
+  FOR fk IN
+    SELECT conname FROM pg_constraint
+    WHERE conrelid = 'food_item_photos'::regclass AND confrelid = 'food_items'::regclass
+  LOOP
+    EXECUTE format('ALTER TABLE food_item_photos DROP CONSTRAINT %I', fk.conname);
+  END LOOP;
+END $$;
+
+-- 3. Swap in the partitioned table.
+ALTER TABLE food_items RENAME TO food_items_legacy;
+ALTER INDEX IF EXISTS food_items_pkey RENAME TO food_items_legacy_pkey;
+
+CREATE TABLE food_items (
+  id bigint NOT NULL DEFAULT nextval('food_items_id_seq'),
+  donor_id bigint NOT NULL,
+  name varchar(255) NOT NULL,
+  quantity integer NOT NULL,
+  expiry_date date NOT NULL,
+  pickup_location varchar(255) NOT NULL,
+  pickup_latitude numeric(9,6),
+  pickup_longitude numeric(9,6),
+  created_at timestamp(6) NOT NULL,
+  updated_at timestamp(6) NOT NULL,
+  matched boolean NOT NULL DEFAULT false,
+  PRIMARY KEY (id, expiry_date)
+) PARTITION BY RANGE (expiry_date);
+
+CREATE INDEX ON food_items (donor_id);
+
+-- Also called by FoodItemPartitionManager before inserts and when pre-creating days.
+CREATE OR REPLACE FUNCTION food_items_ensure_partition(day date) RETURNS void AS $$
+BEGIN
+  EXECUTE format(
+    'CREATE TABLE IF NOT EXISTS %I PARTITION OF food_items FOR VALUES FROM (%L) TO (%L)',
+    'food_items_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+END $$ LANGUAGE plpgsql;
+
+SELECT food_items_ensure_partition(d::date)
+FROM generate_series(
+  current_date,
+  GREATEST(current_date + 14, (SELECT MAX(expiry_date) FROM food_items_legacy)),
+  interval '1 day') AS d;
+
+-- 4. Copy the live inventory; already-expired rows stay behind in the legacy table.
+INSERT INTO food_items (id, donor_id, name, quantity, expiry_date, pickup_location,
+                        pickup_latitude, pickup_longitude, created_at, updated_at, matched)
+SELECT id, donor_id, name, quantity, expiry_date, pickup_location,
+       pickup_latitude, pickup_longitude, created_at, updated_at, matched
+FROM food_items_legacy
+WHERE expiry_date >= current_date;
+
+DELETE FROM food_item_photos p
+WHERE NOT EXISTS (SELECT 1 FROM food_items f WHERE f.id = p.food_item_id);
+
+COMMIT;
+
+-- Once the application has been verified against the new table:
+-- DROP TABLE food_items_legacy;
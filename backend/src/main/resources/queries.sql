@@ -0,0 +1,52 @@
+-- food_items: switch id generation to a pooled sequence (FoodItems allocationSize = 50)
+-- so Hibernate can batch inserts. The identity column keeps its sequence; only the
+-- increment changes, and the DEFAULT stays valid for inserts made outside the app.
+ALTER TABLE food_items ALTER COLUMN id SET INCREMENT BY 50;
+-- If the column was created as bigserial instead of an identity column:
+-- ALTER SEQUENCE food_items_id_seq INCREMENT BY 50;
+
+-- pickup_requests: dashboard listings filter by donor or receiver and status, newest first
+CREATE INDEX IF NOT EXISTS idx_pickup_requests_donor_status_created
+    ON pickup_requests (donor_id, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_pickup_requests_receiver_status_created
+    ON pickup_requests (receiver_id, status, created_at);
+-- Unfiltered listings page by the (created_at, delivery_number) keyset
+CREATE INDEX IF NOT EXISTS idx_pickup_requests_donor_created_delivery
+    ON pickup_requests (donor_id, created_at, delivery_number);
+CREATE INDEX IF NOT EXISTS idx_pickup_requests_receiver_created_delivery
+    ON pickup_requests (receiver_id, created_at, delivery_number);
+CREATE INDEX IF NOT EXISTS idx_pickup_requests_delivery_number
+    ON pickup_requests (delivery_number);
+
+-- pickup_idempotency_keys: keys are scoped per receiver and remember the request body's hash.
+-- Keys only live for a day, so the old rows are dropped rather than backfilled; run before
+-- starting the new version so Hibernate can add the NOT NULL columns and the new constraint.
+-- Only runs while the old per-key constraint exists, so re-running this file keeps live keys.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_pickup_idempotency_key') THEN
+        DELETE FROM pickup_idempotency_keys;
+        ALTER TABLE pickup_idempotency_keys DROP CONSTRAINT uk_pickup_idempotency_key;
+    END IF;
+END $$;
+
+-- pickup_slot_bookings: slot capacity is now counted here instead of in each node's memory.
+-- Created ahead of Hibernate so the counts can be backfilled before the new version takes
+-- orders. The backfill counts uncancelled deliveries from today on, and assumes the default
+-- 15-minute slots (pickup-slots.minutes); slots that already have a row are left alone.
+CREATE TABLE IF NOT EXISTS pickup_slot_bookings (
+    id          bigserial PRIMARY KEY,
+    donor_id    bigint  NOT NULL,
+    pickup_date date    NOT NULL,
+    slot_start  time    NOT NULL,
+    booked      integer NOT NULL,
+    CONSTRAINT uk_pickup_slot_bookings_slot UNIQUE (donor_id, pickup_date, slot_start)
+);
+INSERT INTO pickup_slot_bookings (donor_id, pickup_date, slot_start, booked)
+SELECT donor_id, pickup_date,
+       time '00:00' + floor(extract(epoch FROM pickup_time) / 900) * interval '900 seconds',
+       COUNT(DISTINCT delivery_number)
+FROM pickup_requests
+WHERE pickup_date >= CURRENT_DATE AND status <> 'CANCELLED'
+GROUP BY 1, 2, 3
+ON CONFLICT (donor_id, pickup_date, slot_start) DO NOTHING;
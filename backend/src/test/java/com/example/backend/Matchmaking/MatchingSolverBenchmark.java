@@ -0,0 +1,114 @@
+package com.example.backend.Matchmaking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Times a full matching run of {@link MatchingSolver} on a synthetic city,
+ * single-threaded and on a fork-join pool with one worker per core.
+ *
+ * Run with: mvn test-compile, then launch {@link #main} on the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MatchingSolverBenchmark {
+
+  // Synthetic donors and receivers are spread over a ~50 km square around this point
+  private static final double CENTER_LAT = 28.6139;
+  private static final double CENTER_LON = 77.2090;
+  private static final double SPREAD_DEG = 0.45;
+
+  @State(Scope.Benchmark)
+  public static class City {
+
+    @Param({ "2000", "10000" })
+    int itemCount;
+
+    @Param({ "20000" })
+    int receiverCount;
+
+    List<MatchingSolver.Item> items;
+    List<MatchingSolver.Receiver> receivers;
+    ForkJoinPool parallelPool;
+    ForkJoinPool singlePool;
+    MatchingSolver parallel;
+    MatchingSolver single;
+
+    @Setup(Level.Trial)
+    public void generate() {
+      Random random = new Random(42);
+      items = new ArrayList<>(itemCount);
+      for (int i = 0; i < itemCount; i++) {
+        items.add(
+          new MatchingSolver.Item(
+            i,
+            CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG,
+            CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG,
+            1 + random.nextInt(20),
+            random.nextInt(4) == 0
+          )
+        );
+      }
+      receivers = new ArrayList<>(receiverCount);
+      for (int r = 0; r < receiverCount; r++) {
+        receivers.add(
+          new MatchingSolver.Receiver(
+            r,
+            CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG,
+            CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG,
+            1 + random.nextInt(10),
+            random.nextBoolean()
+          )
+        );
+      }
+      parallelPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      singlePool = new ForkJoinPool(1);
+      parallel = new MatchingSolver(5, 12, 0.05, parallelPool);
+      single = new MatchingSolver(5, 12, 0.05, singlePool);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+      parallelPool.shutdown();
+      singlePool.shutdown();
+    }
+  }
+
+  @Benchmark
+  public List<MatchingSolver.Assignment> forkJoin(City city) {
+    return city.parallel.solve(city.items, city.receivers);
+  }
+
+  @Benchmark
+  public List<MatchingSolver.Assignment> singleThread(City city) {
+    return city.single.solve(city.items, city.receivers);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+      .include(MatchingSolverBenchmark.class.getSimpleName())
+      .build()).run();
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.backend.Matchmaking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Tests how {@link PickupEventProjector} waits at event id gaps and when it
+ * decides a missing id was rolled back.
+ */
+class PickupEventProjectorTest {
+
+  // Stands in for the database: only the snapshot xmax is read by the gap check
+  private static class FakeJdbcTemplate extends JdbcTemplate {
+
+    long xmax;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T queryForObject(String sql, Class<T> requiredType) {
+      return (T) Long.valueOf(xmax);
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch, Object... args) {}
+
+    @Override
+    public int update(String sql, Object... args) {
+      return 1;
+    }
+  }
+
+  private static class NoOpTransactionManager implements PlatformTransactionManager {
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+      return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {}
+
+    @Override
+    public void rollback(TransactionStatus status) {}
+  }
+
+  private static class TestProjector extends PickupEventProjector {
+
+    TestProjector(JdbcTemplate jdbcTemplate) {
+      super(jdbcTemplate, new NoOpTransactionManager());
+    }
+
+    @Override
+    public String getName() {
+      return "test";
+    }
+
+    @Override
+    protected void apply(List<Event> events) {}
+
+    @Override
+    protected void reset() {}
+  }
+
+  private final FakeJdbcTemplate jdbc = new FakeJdbcTemplate();
+  private final TestProjector projector = new TestProjector(jdbc);
+
+  private static List<PickupEventProjector.Event> events(long... ids) {
+    return LongStream
+      .of(ids)
+      .mapToObj(id ->
+        new PickupEventProjector.Event(id, "CREATED", "D" + id, null, null, null, null, null, null, null, null)
+      )
+      .toList();
+  }
+
+  private static List<Long> ids(List<PickupEventProjector.Event> events) {
+    return events.stream().map(PickupEventProjector.Event::id).toList();
+  }
+
+  @Test
+  void stopsAtGapUntilItIsFilled() {
+    jdbc.xmax = 10;
+    assertEquals(List.of(1L, 2L), ids(projector.contiguous(0, events(1, 2, 4), 5)));
+    // Still open: nothing past the gap goes out
+    assertEquals(List.of(), ids(projector.contiguous(2, events(4), 5)));
+
+    // The slow commit landed
+    assertEquals(List.of(3L, 4L), ids(projector.contiguous(2, events(3, 4), 5)));
+  }
+
+  @Test
+  void skipsRolledBackIdOnceItsHolderHasFinished() {
+    jdbc.xmax = 10;
+    assertEquals(List.of(1L), ids(projector.contiguous(0, events(1, 3), 8)));
+
+    // A transaction older than the gap may still hold id 2
+    assertEquals(List.of(), ids(projector.contiguous(1, events(3), 9)));
+    // Every transaction that could hold it has finished, so id 2 was rolled back
+    assertEquals(List.of(3L), ids(projector.contiguous(1, events(3), 10)));
+  }
+
+  @Test
+  void laterGapWaitsOnItsOwnHorizon() {
+    jdbc.xmax = 10;
+    assertEquals(List.of(1L), ids(projector.contiguous(0, events(1, 3, 5), 8)));
+    jdbc.xmax = 20;
+    assertEquals(List.of(3L), ids(projector.contiguous(1, events(3, 5), 10)));
+
+    assertEquals(List.of(), ids(projector.contiguous(3, events(5), 15)));
+    assertEquals(List.of(5L), ids(projector.contiguous(3, events(5), 20)));
+  }
+
+  @Test
+  void rebuildForgetsTheNotedGap() {
+    jdbc.xmax = 10;
+    assertEquals(List.of(1L), ids(projector.contiguous(0, events(1, 3), 8)));
+
+    projector.rebuild();
+
+    // Replaying from the start notes the gap afresh instead of trusting the old horizon
+    jdbc.xmax = 30;
+    assertEquals(List.of(1L), ids(projector.contiguous(0, events(1, 3), 20)));
+    assertEquals(List.of(3L), ids(projector.contiguous(1, events(3), 30)));
+  }
+}
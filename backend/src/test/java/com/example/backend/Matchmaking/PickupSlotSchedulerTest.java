@@ -0,0 +1,115 @@
+package com.example.backend.Matchmaking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the slot bitmap behind {@link PickupSlotScheduler}'s read cache and
+ * its availability window rule.
+ */
+class PickupSlotSchedulerTest {
+
+  // 15-minute slots
+  private static final int SLOTS_PER_DAY = 96;
+  private static final int CAPACITY = 2;
+
+  private static PickupSlotScheduler.DaySchedule openDay() {
+    PickupSlotScheduler.DaySchedule day = new PickupSlotScheduler.DaySchedule(SLOTS_PER_DAY, 0);
+    for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+      day.open(slot, CAPACITY);
+    }
+    return day;
+  }
+
+  @Test
+  void fullSlotIsNotFree() {
+    PickupSlotScheduler.DaySchedule day = openDay();
+
+    assertTrue(day.book(10, CAPACITY));
+    assertTrue(day.isFree(10));
+    assertTrue(day.book(10, CAPACITY));
+
+    assertFalse(day.isFree(10));
+    assertFalse(day.book(10, CAPACITY));
+    assertEquals(2, day.booked(10));
+    assertEquals(11, day.nextFree(10));
+  }
+
+  @Test
+  void slotLoadedAtCapacityStartsFull() {
+    PickupSlotScheduler.DaySchedule day = new PickupSlotScheduler.DaySchedule(SLOTS_PER_DAY, 0);
+    day.add(5, CAPACITY);
+    day.open(5, CAPACITY);
+
+    assertTrue(day.isInWindow(5));
+    assertFalse(day.isFree(5));
+  }
+
+  @Test
+  void releaseReopensFullSlot() {
+    PickupSlotScheduler.DaySchedule day = openDay();
+    day.book(10, CAPACITY);
+    day.book(10, CAPACITY);
+
+    day.release(10, CAPACITY);
+
+    assertTrue(day.isFree(10));
+    assertEquals(1, day.booked(10));
+    assertEquals(10, day.nextFree(10));
+  }
+
+  @Test
+  void releaseDoesNotOpenSlotOutsideWindow() {
+    PickupSlotScheduler.DaySchedule day = new PickupSlotScheduler.DaySchedule(SLOTS_PER_DAY, 0);
+    day.add(3, 1);
+
+    day.release(3, CAPACITY);
+
+    assertFalse(day.isFree(3));
+    assertEquals(-1, day.nextFree(0));
+  }
+
+  @Test
+  void nextFreeCrossesWordBoundary() {
+    PickupSlotScheduler.DaySchedule day = new PickupSlotScheduler.DaySchedule(SLOTS_PER_DAY, 0);
+    for (int slot = 60; slot < SLOTS_PER_DAY; slot++) {
+      day.open(slot, CAPACITY);
+    }
+    for (int slot = 60; slot < 64; slot++) {
+      day.book(slot, CAPACITY);
+      day.book(slot, CAPACITY);
+    }
+
+    assertEquals(64, day.nextFree(0));
+    assertEquals(64, day.nextFree(62));
+    assertEquals(65, day.nextFree(65));
+    assertEquals(-1, day.nextFree(SLOTS_PER_DAY));
+  }
+
+  @Test
+  void dayWindowExcludesSlotsRunningPastClosing() {
+    // 09:00 to 17:00
+    assertTrue(PickupSlotScheduler.inWindow(9 * 60, 15, 9 * 60, 17 * 60));
+    assertTrue(PickupSlotScheduler.inWindow(16 * 60 + 45, 15, 9 * 60, 17 * 60));
+    assertFalse(PickupSlotScheduler.inWindow(17 * 60, 15, 9 * 60, 17 * 60));
+    assertFalse(PickupSlotScheduler.inWindow(8 * 60 + 45, 15, 9 * 60, 17 * 60));
+  }
+
+  @Test
+  void overnightWindowWrapsPastMidnight() {
+    // 22:00 to 02:00
+    int opens = 22 * 60;
+    int closes = 2 * 60;
+
+    assertTrue(PickupSlotScheduler.inWindow(22 * 60, 15, opens, closes));
+    assertTrue(PickupSlotScheduler.inWindow(23 * 60 + 45, 15, opens, closes));
+    assertTrue(PickupSlotScheduler.inWindow(0, 15, opens, closes));
+    assertTrue(PickupSlotScheduler.inWindow(60 + 45, 15, opens, closes));
+    assertFalse(PickupSlotScheduler.inWindow(2 * 60, 15, opens, closes));
+    assertFalse(PickupSlotScheduler.inWindow(12 * 60, 15, opens, closes));
+    assertFalse(PickupSlotScheduler.inWindow(21 * 60 + 45, 15, opens, closes));
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.backend.Matchmaking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link RoutePlanner} on small hand-made routes and times a plan of
+ * 200 stops with time windows.
+ */
+class RoutePlannerTest {
+
+  private final RoutePlanner planner = new RoutePlanner(25, 5);
+
+  private static List<RoutePlanner.Stop> randomStops(int count, long seed) {
+    Random random = new Random(seed);
+    List<RoutePlanner.Stop> stops = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Integer from = null;
+      Integer to = null;
+      if (random.nextInt(3) > 0) {
+        from = 8 * 60 + random.nextInt(8 * 60);
+        to = from + 60 + random.nextInt(4 * 60);
+      }
+      stops.add(
+        new RoutePlanner.Stop(
+          "D" + i,
+          52.45 + random.nextDouble() * 0.15,
+          13.25 + random.nextDouble() * 0.25,
+          from,
+          to
+        )
+      );
+    }
+    return stops;
+  }
+
+  @Test
+  void visitsEveryStopOnce() {
+    List<RoutePlanner.Stop> stops = randomStops(40, 7);
+
+    RoutePlanner.Route route = planner.plan(52.52, 13.40, 8 * 60, stops);
+
+    Set<String> visited = new HashSet<>();
+    route.visits().forEach(visit -> visited.add(visit.stop().id()));
+    assertEquals(stops.size(), route.visits().size());
+    assertEquals(stops.size(), visited.size());
+  }
+
+  @Test
+  void ordersStopsAlongALine() {
+    List<RoutePlanner.Stop> stops = List.of(
+      new RoutePlanner.Stop("far", 52.0, 13.3, null, null),
+      new RoutePlanner.Stop("near", 52.0, 13.1, null, null),
+      new RoutePlanner.Stop("middle", 52.0, 13.2, null, null)
+    );
+
+    RoutePlanner.Route route = planner.plan(52.0, 13.0, 9 * 60, stops);
+
+    assertEquals(
+      List.of("near", "middle", "far"),
+      route.visits().stream().map(visit -> visit.stop().id()).toList()
+    );
+  }
+
+  @Test
+  void overnightWindowIsNotLateAfterMidnightOrBefore() {
+    // Open from 22:00 to 02:00
+    List<RoutePlanner.Stop> stops = List.of(new RoutePlanner.Stop("night", 52.0, 13.01, 22 * 60, 2 * 60));
+
+    RoutePlanner.Route evening = planner.plan(52.0, 13.0, 23 * 60, stops);
+    RoutePlanner.Route earlyHours = planner.plan(52.0, 13.0, 60, stops);
+    RoutePlanner.Route afternoon = planner.plan(52.0, 13.0, 15 * 60, stops);
+
+    assertFalse(evening.visits().get(0).late());
+    assertFalse(earlyHours.visits().get(0).late());
+    // Before the window opens the driver waits for it
+    assertFalse(afternoon.visits().get(0).late());
+    assertEquals(22 * 60, afternoon.visits().get(0).arrivalMinute(), 1e-9);
+  }
+
+  @Test
+  void overnightWindowIsLateAfterItCloses() {
+    List<RoutePlanner.Stop> stops = List.of(new RoutePlanner.Stop("night", 52.0, 13.01, 22 * 60, 2 * 60));
+
+    RoutePlanner.Route route = planner.plan(52.0, 13.0, 60 + 59, stops);
+
+    assertTrue(route.visits().get(0).late());
+  }
+
+  @Test
+  void plansTwoHundredStopsWithinASecond() {
+    // Warm up the JIT on a plan of the same size, so the timed run measures compiled code
+    planner.plan(52.52, 13.40, 8 * 60, randomStops(200, 1));
+    List<RoutePlanner.Stop> stops = randomStops(200, 42);
+
+    long started = System.nanoTime();
+    RoutePlanner.Route route = planner.plan(52.52, 13.40, 8 * 60, stops);
+    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+    assertEquals(200, route.visits().size());
+    assertTrue(elapsedMs < 1000, "planning 200 stops took " + elapsedMs + " ms");
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.backend.foodItems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the email pipeline against a minimal in-process SMTP server.
+ */
+class EmailNotificationServiceTest {
+
+    private FakeSmtpServer smtp;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailNotificationService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer();
+        meterRegistry = new SimpleMeterRegistry();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+        service = new EmailNotificationService(mailSender, meterRegistry, 100, 2, 10, 3, 50);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.stop();
+        smtp.close();
+    }
+
+    @Test
+    void deliversQueuedMessagesInBatches() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            assertTrue(service.sendSimpleMessage("receiver" + i + "@example.com", "Food Item Available", "Bread " + i));
+        }
+
+        awaitTrue(() -> smtp.messages.size() == 25);
+        assertTrue(smtp.connections.get() < 25, "expected connections to be shared, got " + smtp.connections.get());
+        assertTrue(smtp.messages.stream().anyMatch(m -> m.contains("Bread 7")));
+        // Meters are updated once send returns, after the server already holds the messages
+        awaitTrue(() -> meterRegistry.counter("notifications.email.sent").count() == 25);
+        awaitTrue(() -> meterRegistry.timer("notifications.email.latency").count() == 25);
+    }
+
+    @Test
+    void retriesWhileTheServerIsUnavailable() throws Exception {
+        smtp.refuseConnections.set(2);
+
+        service.sendSimpleMessage("receiver@example.com", "Food Item Available", "Soup");
+
+        awaitTrue(() -> smtp.messages.size() == 1);
+        assertEquals(2, meterRegistry.counter("notifications.email.retried").count());
+        assertTrue(service.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void deadLettersRejectedRecipientsAndDeliversTheRest() throws Exception {
+        service.sendSimpleMessage("reject@example.com", "Food Item Available", "Rice");
+        service.sendSimpleMessage("receiver@example.com", "Food Item Available", "Rice");
+
+        awaitTrue(() -> smtp.messages.size() == 1 && service.getDeadLetters().size() == 1);
+        EmailNotificationService.DeadLetter letter = service.getDeadLetters().get(0);
+        assertEquals("reject@example.com", letter.to());
+        assertTrue(letter.reason().startsWith("rejected"), letter.reason());
+        assertEquals(0, meterRegistry.counter("notifications.email.retried").count());
+    }
+
+    @Test
+    void deadLettersAfterTheLastAttempt() throws Exception {
+        smtp.refuseConnections.set(Integer.MAX_VALUE);
+
+        service.sendSimpleMessage("receiver@example.com", "Food Item Available", "Fruit");
+
+        awaitTrue(() -> service.getDeadLetters().size() == 1);
+        assertEquals(3, service.getDeadLetters().get(0).attempts());
+
+        smtp.refuseConnections.set(0);
+        assertEquals(1, service.requeueDeadLetters());
+        awaitTrue(() -> smtp.messages.size() == 1);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met within 10 s");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Speaks just enough SMTP for JavaMail: recipients containing "reject" get
+     * a 550, and the first refuseConnections connections are turned away with
+     * a 421 greeting.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger refuseConnections = new AtomicInteger();
+
+        private FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread.ofPlatform().daemon().start(this::accept);
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofPlatform().daemon().start(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                if (refuseConnections.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                    reply(out, "421 localhost Service not available");
+                    return;
+                }
+                connections.incrementAndGet();
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT") && command.contains("REJECT")) {
+                        reply(out, "550 5.1.1 No such user");
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backend.foodItems;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the in-memory cell index behind /api/items/nearby with the
+ * ST_DWithin native query it replaced, over the same synthetic items.
+ *
+ * Run with: mvn test-compile, then launch {@link #main} on the test classpath.
+ * The native benchmark needs a PostGIS database, configured with
+ * -Dbench.jdbc.url, -Dbench.jdbc.user and -Dbench.jdbc.password.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyItemsBenchmark {
+
+    // Synthetic items are spread over a ~50 km square around this point
+    private static final double CENTER_LAT = 28.6139;
+    private static final double CENTER_LON = 77.2090;
+    private static final double SPREAD_DEG = 0.45;
+
+    private static final String NATIVE_QUERY = "SELECT * FROM bench_food_items WHERE " +
+            "ST_DWithin(" +
+            "   ST_SetSRID(ST_MakePoint(pickup_longitude, pickup_latitude), 4326)::geography, " +
+            "   ST_SetSRID(ST_MakePoint(?, ?), 4326)::geography, " +
+            "   ? * 1000" +
+            ")";
+
+    @State(Scope.Benchmark)
+    public static class Items {
+        @Param({ "10000", "100000" })
+        int itemCount;
+
+        @Param({ "5" })
+        int distanceKm;
+
+        double[] lats;
+        double[] lons;
+        double[] queryLats;
+        double[] queryLons;
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42);
+            lats = new double[itemCount];
+            lons = new double[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+                lats[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG;
+                lons[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG;
+            }
+            queryLats = new double[1024];
+            queryLons = new double[1024];
+            for (int i = 0; i < queryLats.length; i++) {
+                queryLats[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG;
+                queryLons[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG;
+            }
+        }
+
+        int nextQuery() {
+            next = (next + 1) & (queryLats.length - 1);
+            return next;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+        GeoCellIndex<Long> index;
+
+        @Setup(Level.Trial)
+        public void build(Items items) {
+            index = new GeoCellIndex<>(0.05);
+            for (int i = 0; i < items.itemCount; i++) {
+                index.put(i, items.lats[i], items.lons[i], (long) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DatabaseState {
+        Connection connection;
+        PreparedStatement query;
+
+        @Setup(Level.Trial)
+        public void load(Items items) throws SQLException {
+            connection = DriverManager.getConnection(
+                    System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/food-waste-management"),
+                    System.getProperty("bench.jdbc.user", "postgres"),
+                    System.getProperty("bench.jdbc.password", "postgres"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS bench_food_items");
+                statement.execute("CREATE TABLE bench_food_items (id bigint PRIMARY KEY, " +
+                        "pickup_latitude numeric(9,6), pickup_longitude numeric(9,6))");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO bench_food_items (id, pickup_latitude, pickup_longitude) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < items.itemCount; i++) {
+                    insert.setLong(1, i);
+                    insert.setDouble(2, items.lats[i]);
+                    insert.setDouble(3, items.lons[i]);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE bench_food_items");
+            }
+            query = connection.prepareStatement(NATIVE_QUERY);
+        }
+
+        @TearDown(Level.Trial)
+        public void drop() throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS bench_food_items");
+            }
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<Long> geoIndex(Items items, IndexState state) {
+        int q = items.nextQuery();
+        return state.index.within(items.queryLats[q], items.queryLons[q], items.distanceKm);
+    }
+
+    @Benchmark
+    public List<Long> nativeQuery(Items items, DatabaseState state) throws SQLException {
+        int q = items.nextQuery();
+        state.query.setDouble(1, items.queryLons[q]);
+        state.query.setDouble(2, items.queryLats[q]);
+        state.query.setInt(3, items.distanceKm);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = state.query.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong("id"));
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NearbyItemsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
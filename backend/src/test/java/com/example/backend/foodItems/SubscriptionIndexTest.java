@@ -0,0 +1,100 @@
+package com.example.backend.foodItems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests keyword folding, cell posting and the exact checks of
+ * {@link SubscriptionIndex}.
+ */
+class SubscriptionIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 10);
+    // Middle of a 0.1 degree cell
+    private static final double LAT = 10.05;
+    private static final double LON = 20.05;
+
+    private static SubscriptionIndex.Subscription subscription(long id, double radiusKm, Integer minDaysToExpiry) {
+        return new SubscriptionIndex.Subscription(id, 100 + id, LAT, LON, radiusKm, minDaysToExpiry);
+    }
+
+    private static List<Long> matchIds(SubscriptionIndex index, String name, double lat, double lon, LocalDate expiry) {
+        return index.match(name, lat, lon, expiry, TODAY).stream().map(SubscriptionIndex.Subscription::id).toList();
+    }
+
+    @Test
+    void tokenizeFoldsPlurals() {
+        assertEquals(Set.of("fresh", "bread", "berry", "tomato", "glass", "bus"),
+                SubscriptionIndex.tokenize("Fresh BREADS, berries & tomatoes; glass bus"));
+        // Single letters are dropped
+        assertEquals(Set.of("milk"), SubscriptionIndex.tokenize("a milk x"));
+    }
+
+    @Test
+    void pluralKeywordMatchesSingularName() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.put(subscription(1, 5, null), "tomatoes berries");
+
+        assertEquals(List.of(1L), matchIds(index, "Tomato", LAT, LON, null));
+        assertEquals(List.of(1L), matchIds(index, "Berry mix", LAT, LON, null));
+        // Whole words only
+        assertTrue(matchIds(index, "Strawberry", LAT, LON, null).isEmpty());
+        assertTrue(matchIds(index, "Potato", LAT, LON, null).isEmpty());
+    }
+
+    @Test
+    void itemMatchingSeveralKeywordsIsReportedOnce() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.put(subscription(1, 5, null), "bread rolls");
+
+        assertEquals(List.of(1L), matchIds(index, "Bread rolls", LAT, LON, null));
+    }
+
+    @Test
+    void radiusSpanningSeveralCellsMatchesInEachOfThem() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        // 15 km reaches into the neighbouring cells on every side
+        index.put(subscription(1, 15, null), "bread");
+
+        assertEquals(List.of(1L), matchIds(index, "bread", LAT + 0.12, LON, null));
+        assertEquals(List.of(1L), matchIds(index, "bread", LAT - 0.12, LON, null));
+        assertEquals(List.of(1L), matchIds(index, "bread", LAT, LON + 0.13, null));
+        assertEquals(List.of(1L), matchIds(index, "bread", LAT, LON - 0.13, null));
+        // In a posted corner cell but about 15.6 km away
+        assertTrue(matchIds(index, "bread", LAT + 0.1, LON + 0.1, null).isEmpty());
+        // Beyond the posted cells
+        assertTrue(matchIds(index, "bread", LAT + 0.3, LON, null).isEmpty());
+    }
+
+    @Test
+    void expiryHorizonIsInclusive() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.put(subscription(1, 5, 3), "milk");
+        index.put(subscription(2, 5, null), "milk");
+
+        assertEquals(List.of(1L, 2L), matchIds(index, "milk", LAT, LON, TODAY.plusDays(3)));
+        assertEquals(List.of(2L), matchIds(index, "milk", LAT, LON, TODAY.plusDays(2)));
+        // An unknown expiry only satisfies subscriptions without a horizon
+        assertEquals(List.of(2L), matchIds(index, "milk", LAT, LON, null));
+    }
+
+    @Test
+    void replacedAndRemovedSubscriptionsStopMatching() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.put(subscription(1, 5, null), "milk");
+        index.put(subscription(1, 5, null), "cheese");
+
+        assertTrue(matchIds(index, "milk", LAT, LON, null).isEmpty());
+        assertEquals(List.of(1L), matchIds(index, "cheese", LAT, LON, null));
+
+        assertTrue(index.remove(1));
+        assertTrue(matchIds(index, "cheese", LAT, LON, null).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.foodItems;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Times matching one new item against the {@link SubscriptionIndex}, with
+ * subscriptions spread over a synthetic city and keywords drawn from a
+ * skewed vocabulary (a few words like "rice" are very popular).
+ *
+ * Run with: mvn test-compile, then launch {@link #main} on the test classpath
+ * (give the JVM -Xmx4g for a million subscriptions).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SubscriptionPercolatorBenchmark {
+
+    // Subscriptions and items are spread over a ~50 km square around this point
+    private static final double CENTER_LAT = 28.6139;
+    private static final double CENTER_LON = 77.2090;
+    private static final double SPREAD_DEG = 0.45;
+    private static final int VOCABULARY = 500;
+    private static final int ITEMS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Subscriptions {
+
+        @Param({ "100000", "1000000" })
+        int subscriptionCount;
+
+        SubscriptionIndex index;
+        String[] names;
+        double[] lats;
+        double[] lons;
+        LocalDate[] expiries;
+        LocalDate today = LocalDate.now();
+        int next;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42);
+            index = new SubscriptionIndex();
+            List<SubscriptionIndex.Subscription> batch = new ArrayList<>();
+            Map<Long, String> keywords = new HashMap<>();
+            for (int i = 0; i < subscriptionCount; i++) {
+                SubscriptionIndex.Subscription subscription = new SubscriptionIndex.Subscription(
+                        i,
+                        i,
+                        CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG,
+                        CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG,
+                        2 + random.nextInt(9),
+                        random.nextBoolean() ? null : random.nextInt(4));
+                batch.add(subscription);
+                keywords.put((long) i, word(random) + " " + word(random));
+                if (batch.size() == 10000) {
+                    index.putAll(batch, keywords);
+                    batch.clear();
+                    keywords.clear();
+                }
+            }
+            index.putAll(batch, keywords);
+
+            names = new String[ITEMS];
+            lats = new double[ITEMS];
+            lons = new double[ITEMS];
+            expiries = new LocalDate[ITEMS];
+            for (int i = 0; i < ITEMS; i++) {
+                names[i] = "Fresh " + word(random) + " and " + word(random);
+                lats[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEG;
+                lons[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD_DEG;
+                expiries[i] = today.plusDays(random.nextInt(7));
+            }
+        }
+
+        // Zipf-like: word k is drawn with probability proportional to 1 / (k + 1)
+        private static String word(Random random) {
+            double u = random.nextDouble() * Math.log(VOCABULARY + 1);
+            return "food" + (int) (Math.exp(u) - 1);
+        }
+    }
+
+    @Benchmark
+    public int matchOneItem(Subscriptions s) {
+        int i = s.next++ & (ITEMS - 1);
+        return s.index.match(s.names[i], s.lats[i], s.lons[i], s.expiries[i], s.today).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SubscriptionPercolatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+import { FoodItem } from "./food-item-card";
+
+// One change to an item near the subscriber, pushed by /api/items/feed
+export interface ItemFeedEvent {
+  type: "ADDED" | "RESERVED" | "RELEASED" | "EXPIRED";
+  id: number;
+  donorId: number;
+  name: string;
+  quantity: number;
+  expiryDate: string;
+  pickupLocation: string;
+  pickupLatitude: number;
+  pickupLongitude: number;
+}
+
+interface ItemFeedOptions {
+  lat: number;
+  lng: number;
+  radiusKm: number;
+  onEvent: (event: ItemFeedEvent) => void;
+  // Called after every (re)connect: events sent while disconnected are not replayed
+  onConnect: () => void;
+}
+
+const MAX_RETRY_DELAY_MS = 30000;
+
+/**
+ * Subscribes to live item changes around a point. EventSource cannot send the
+ * Authorization header, so the stream is read with fetch and parsed here.
+ * Reconnects with backoff until the returned function is called.
+ */
+export function subscribeToItemFeed(options: ItemFeedOptions): () => void {
+  const controller = new AbortController();
+  let retryDelay = 1000;
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = localStorage.getItem("token");
+        const params = new URLSearchParams({
+          lat: String(options.lat),
+          lng: String(options.lng),
+          radiusKm: String(options.radiusKm),
+        });
+        const response = await fetch(
+          `http://localhost:8080/api/items/feed?${params}`,
+          {
+            headers: {
+              Accept: "text/event-stream",
+              ...(token ? { Authorization: `Bearer ${token}` } : {}),
+            },
+            signal: controller.signal,
+          }
+        );
+        if (!response.ok || !response.body) {
+          throw new Error(`Item feed responded ${response.status}`);
+        }
+        retryDelay = 1000;
+        options.onConnect();
+        await readEvents(response.body, options.onEvent);
+      } catch (err) {
+        if (controller.signal.aborted) {
+          return;
+        }
+        console.error("Item feed disconnected:", err);
+      }
+      await new Promise((resolve) => setTimeout(resolve, retryDelay));
+      retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+}
+
+// Reads "event:"/"data:" frames until the server closes the stream
+async function readEvents(
+  body: ReadableStream<Uint8Array>,
+  onEvent: (event: ItemFeedEvent) => void
+) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = "";
+  let data: string[] = [];
+
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) {
+      return;
+    }
+    buffer += value;
+    const lines = buffer.split(/\r\n|\r|\n/);
+    buffer = lines.pop() ?? "";
+    for (const line of lines) {
+      if (line === "") {
+        // Blank line ends a frame; heartbeats are comments and carry no data
+        if (data.length > 0) {
+          try {
+            onEvent(JSON.parse(data.join("\n")));
+          } catch (err) {
+            console.error("Ignoring malformed item feed event:", err);
+          }
+        }
+        data = [];
+      } else if (line.startsWith("data:")) {
+        data.push(line.slice(5).replace(/^ /, ""));
+      }
+    }
+  }
+}
+
+// Applies one event to a loaded item list; newItems says whether ADDED belongs in it
+export function applyItemFeedEvent(
+  items: FoodItem[],
+  event: ItemFeedEvent,
+  newItems: boolean
+): FoodItem[] {
+  const index = items.findIndex((item) => item.id === event.id);
+  if (event.type === "EXPIRED" || event.quantity <= 0) {
+    return index === -1 ? items : items.filter((item) => item.id !== event.id);
+  }
+  if (index === -1) {
+    if (event.type !== "ADDED" || !newItems) {
+      return items;
+    }
+    const added = {
+      id: event.id,
+      donorId: event.donorId,
+      donorName: "",
+      name: event.name,
+      quantity: event.quantity,
+      expiryDate: event.expiryDate,
+      pickupLocation: event.pickupLocation,
+      pickupLatitude: event.pickupLatitude,
+      pickupLongitude: event.pickupLongitude,
+    } as FoodItem;
+    return [added, ...items];
+  }
+  const updated = [...items];
+  updated[index] = { ...updated[index], quantity: event.quantity };
+  return updated;
+}
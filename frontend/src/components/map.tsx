@@ -47,6 +47,7 @@ function LocationMarker({
   return null;
 }
 
+// Markers follow the parent's item list, which the live item feed keeps current
 export default function MapView({ foodItems }: { foodItems: FoodItem[] }) {
   const [userPosition, setUserPosition] = useState<L.LatLng | null>(null);
   const calculateDistance = (lat1: number, lng1: number): number | null => {
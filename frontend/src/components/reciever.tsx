@@ -1,10 +1,11 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import axios from "axios";
 import { Link, useNavigate } from "react-router-dom";
 import FoodItemCard, { FoodItem } from "./food-item-card";
 import Pagination from "./pagination";
 import RequestModal from "./request-modal";
 import MapView from "./map";
+import { applyItemFeedEvent, subscribeToItemFeed } from "./item-feed";
 
 interface RecipientPageProps {
   onLogout: () => void;
@@ -52,6 +53,13 @@ const RecipientPage: React.FC<RecipientPageProps> = ({ onLogout }) => {
   const [cartItems, setCartItems] = useState<CartItem[]>([]);
   const [filterByDonorId, setFilterByDonorId] = useState<number | null>(null);
 
+  // Bumped when the live feed (re)connects, since missed changes are not replayed
+  const [reloadKey, setReloadKey] = useState<number>(0);
+  // New donations only belong in the list when no search or donor filter is active
+  const showNewItems = useRef<boolean>(true);
+  showNewItems.current =
+    !searchTerm.trim() && !filterExpiringSoon && !filterByDonorId;
+
   useEffect(() => {
     const fetchFoodItems = async () => {
       try {
@@ -127,8 +135,27 @@ const RecipientPage: React.FC<RecipientPageProps> = ({ onLogout }) => {
     filterByDonorId,
     distanceFilter,
     userLocation,
+    reloadKey,
   ]);
 
+  // Live changes to items around the user, applied on top of the loaded list
+  useEffect(() => {
+    if (!userLocation) {
+      return;
+    }
+    return subscribeToItemFeed({
+      lat: userLocation.lat,
+      lng: userLocation.lng,
+      // The server caps the radius at 25 km; farther items refresh on the next load
+      radiusKm: Math.min(distanceFilter ?? 25, 25),
+      onEvent: (event) =>
+        setFoodItems((items) =>
+          applyItemFeedEvent(items, event, showNewItems.current)
+        ),
+      onConnect: () => setReloadKey((key) => key + 1),
+    });
+  }, [userLocation, distanceFilter]);
+
   useEffect(() => {
     if (navigator.geolocation) {
       navigator.geolocation.getCurrentPosition(